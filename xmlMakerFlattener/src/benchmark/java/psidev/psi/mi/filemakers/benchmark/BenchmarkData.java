@@ -0,0 +1,240 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.beans.XMLDecoder;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Random;
+
+import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
+import psidev.psi.mi.filemakers.xmlMaker.XmlMaker;
+import psidev.psi.mi.filemakers.xmlMaker.mapping.Mapping;
+import psidev.psi.mi.filemakers.xsd.FileMakersException;
+import psidev.psi.mi.filemakers.xsd.MessageManagerInt;
+
+/**
+ * Data used by the benchmarks: flat files of PSI-MI interactions, and the
+ * PSI-MI 2.5 documents created from them by the maker. The files are created
+ * the first time they are needed and kept in the directory given by the
+ * system property <code>benchmark.data</code>, so that the biggest ones are
+ * not created again for each benchmark.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class BenchmarkData {
+
+	private final static String[] INTERACTION_TYPES = { "MI:0407", "MI:0914",
+			"MI:0218" };
+
+	private final static String[] DETECTION_METHODS = { "MI:0019", "MI:0096",
+			"MI:0006", "MI:0018" };
+
+	private final static String[] TAXIDS = { "9606", "10090" };
+
+	/**
+	 * ignore the messages of the maker and of the flattener
+	 */
+	public final static MessageManagerInt QUIET = new MessageManagerInt() {
+		public void sendMessage(String message, int type) {
+		}
+	};
+
+	/**
+	 * @return the directory where the data is kept
+	 */
+	public static File getDirectory() {
+		File directory = new File(System.getProperty("benchmark.data", System
+				.getProperty("java.io.tmpdir")
+				+ File.separator + "xmlMakerFlattener-benchmark"));
+		directory.mkdirs();
+		return directory;
+	}
+
+	/**
+	 * copy a file of the data of the project, e.g. a schema
+	 *
+	 * @param name
+	 *            the name of the file in the data directory of the resources
+	 */
+	public static File getResource(String name) throws IOException {
+		File file = new File(getDirectory(), name);
+		if (file.exists())
+			return file;
+		InputStream in = BenchmarkData.class.getClassLoader()
+				.getResourceAsStream("data/" + name);
+		if (in == null)
+			throw new IOException("resource not found: data/" + name);
+		File tmpFile = new File(getDirectory(), name + ".tmp");
+		OutputStream out = new FileOutputStream(tmpFile);
+		try {
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) > 0)
+				out.write(buffer, 0, length);
+		} finally {
+			out.close();
+			in.close();
+		}
+		tmpFile.renameTo(file);
+		return file;
+	}
+
+	/**
+	 * @return a line of a flat file of interactions, with the columns of the
+	 *         example of the maker
+	 */
+	public static String getInteractionLine(int index, Random random) {
+		return INTERACTION_TYPES[random.nextInt(INTERACTION_TYPES.length)]
+				+ "\t"
+				+ DETECTION_METHODS[random.nextInt(DETECTION_METHODS.length)]
+				+ "\t" + (8900000 + index) + "\t" + "P"
+				+ (10000 + random.nextInt(90000)) + "\t"
+				+ TAXIDS[random.nextInt(TAXIDS.length)] + "\t" + "Q"
+				+ (10000 + random.nextInt(90000)) + "\t"
+				+ TAXIDS[random.nextInt(TAXIDS.length)] + "\t" + "NAME&"
+				+ index + "\t" + "<TP" + index + ">";
+	}
+
+	/**
+	 * @return a flat file of interactions, with a first line for the titles
+	 */
+	public static File getFlatFile(int nbLines) throws IOException {
+		File file = new File(getDirectory(), "interactions-" + nbLines
+				+ ".txt");
+		if (file.exists())
+			return file;
+		File tmpFile = new File(getDirectory(), file.getName() + ".tmp");
+		Writer out = new BufferedWriter(new FileWriter(tmpFile));
+		try {
+			out
+					.write("interactionTypeMI\tdetectionMI\tpmid\tuniprotkbXref1\ttaxId1\tuniprotkbXref2\ttaxId2\tproteinName1\tproteinName2\n");
+			Random random = new Random(nbLines);
+			for (int i = 0; i < nbLines; i++) {
+				out.write(getInteractionLine(i, random));
+				out.write('\n');
+			}
+		} finally {
+			out.close();
+		}
+		tmpFile.renameTo(file);
+		return file;
+	}
+
+	/**
+	 * @return a maker ready to create a PSI-MI 2.5 document from the flat
+	 *         file
+	 */
+	public static XmlMaker loadMaker(File flatFile) throws IOException,
+			FileMakersException {
+		InputStream in = BenchmarkData.class.getClassLoader()
+				.getResourceAsStream("data/maker-mapping-psi25.xml");
+		XMLDecoder decoder = new XMLDecoder(in);
+		Mapping mapping = (Mapping) decoder.readObject();
+		decoder.close();
+
+		mapping.getFlatFiles().get(0).setFileURL(flatFile.getAbsolutePath());
+		mapping.getDictionaries().get(0).setFileURL(
+				getResource("cvName2MI.txt").getAbsolutePath());
+		mapping.getTree().setSchemaURL(
+				getResource("MIF25.xsd").getAbsolutePath());
+
+		XmlMaker maker = new XmlMaker();
+		maker.xsdTree.setMessageManager(QUIET);
+		maker.load(mapping);
+		return maker;
+	}
+
+	/**
+	 * @return a PSI-MI 2.5 document, created by the maker
+	 */
+	public static File getPsiMiDocument(int nbInteractions)
+			throws IOException, FileMakersException {
+		File file = new File(getDirectory(), "interactions-" + nbInteractions
+				+ ".xml");
+		if (file.exists())
+			return file;
+		File tmpFile = new File(getDirectory(), file.getName() + ".tmp");
+		loadMaker(getFlatFile(nbInteractions)).xsdTree.print2(tmpFile);
+		tmpFile.renameTo(file);
+		return file;
+	}
+
+	/**
+	 * @param streaming
+	 *            true to read the document as a stream when the flat file is
+	 *            written, false to load it now
+	 * @return a flattener ready to flatten the document
+	 */
+	public static XsdTreeStructImpl loadFlattener(File document,
+			boolean streaming) throws Exception {
+		InputStream in = BenchmarkData.class.getClassLoader()
+				.getResourceAsStream("data/flattener-mapping-psi25.xml");
+		XMLDecoder decoder = new XMLDecoder(in);
+		psidev.psi.mi.filemakers.xmlFlattener.mapping.TreeMapping treeMapping = (psidev.psi.mi.filemakers.xmlFlattener.mapping.TreeMapping) decoder
+				.readObject();
+		decoder.close();
+
+		treeMapping.setDocumentURL(document.getAbsolutePath());
+		treeMapping.setSchemaURL(getResource("MIF25.xsd").getAbsolutePath());
+
+		XsdTreeStructImpl flattener = new XsdTreeStructImpl();
+		flattener.setMessageManager(QUIET);
+		flattener.setStreaming(streaming);
+		flattener.loadMapping(treeMapping);
+		return flattener;
+	}
+
+	/**
+	 * writer that ignores what is written, to measure the time to create the
+	 * output only
+	 */
+	public static class NullWriter extends Writer {
+		private long nbChars = 0;
+
+		public void write(char[] cbuf, int off, int len) {
+			nbChars += len;
+		}
+
+		public void write(String str) {
+			nbChars += str.length();
+		}
+
+		public void write(int c) {
+			nbChars++;
+		}
+
+		public void flush() {
+		}
+
+		public void close() {
+		}
+
+		/**
+		 * @return the number of characters written
+		 */
+		public long getNbChars() {
+			return nbChars;
+		}
+	}
+}
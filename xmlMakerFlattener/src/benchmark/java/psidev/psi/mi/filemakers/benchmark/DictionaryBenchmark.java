@@ -0,0 +1,107 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import psidev.psi.mi.filemakers.xmlMaker.structure.Dictionary;
+
+/**
+ * Replacement of the values by the maker using a dictionary, for the words
+ * found and not found in the dictionary.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryBenchmark {
+
+	/**
+	 * a power of 2, so that the words can be chosen with a mask
+	 */
+	private final static int NB_WORDS = 1 << 17;
+
+	@Param( { "false", "true" })
+	public boolean compact;
+
+	@Param( { "true", "false" })
+	public boolean caseSensitive;
+
+	private Dictionary dictionary;
+
+	private String[] words = new String[NB_WORDS];
+
+	private String[] unknownWords = new String[NB_WORDS];
+
+	private int index = 0;
+
+	@Setup
+	public void setUp() throws Exception {
+		File file = new File(BenchmarkData.getDirectory(), "dictionary-"
+				+ NB_WORDS + ".txt");
+		if (false == file.exists()) {
+			Writer out = new BufferedWriter(new FileWriter(file));
+			try {
+				for (int i = 0; i < NB_WORDS; i++)
+					out.write("MI:" + i + "|label " + i + "|definition of "
+							+ i + "\n");
+			} finally {
+				out.close();
+			}
+		}
+		dictionary = new Dictionary(file.toURI().toURL(), "\\|",
+				caseSensitive, compact);
+		/* the words in a different order than in the file */
+		for (int i = 0; i < NB_WORDS; i++) {
+			int word = (int) ((i * 2654435761L) % NB_WORDS);
+			words[i] = "MI:" + word;
+			unknownWords[i] = "MI:" + (NB_WORDS + word);
+		}
+	}
+
+	@Benchmark
+	public String getDefinition() {
+		index = (index + 1) & (NB_WORDS - 1);
+		return dictionary.getDefinition(words[index], 1);
+	}
+
+	@Benchmark
+	public String getDefinitionNotFound() {
+		index = (index + 1) & (NB_WORDS - 1);
+		return dictionary.getDefinition(unknownWords[index], 1);
+	}
+}
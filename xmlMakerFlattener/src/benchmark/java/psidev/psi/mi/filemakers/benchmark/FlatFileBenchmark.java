@@ -0,0 +1,171 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import psidev.psi.mi.filemakers.xmlMaker.structure.FieldSplitter;
+import psidev.psi.mi.filemakers.xmlMaker.structure.FlatFile;
+
+/**
+ * Reading of the flat files by the maker: lines read one by one or until a
+ * line separator, and values of the fields and sub fields of a line.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatFileBenchmark {
+
+	private final static int NB_LINES = 100000;
+
+	private final static String RECORD_SEPARATOR = "//";
+
+	/**
+	 * file read line by line
+	 */
+	private FlatFile lines;
+
+	/**
+	 * the same lines, each one followed by a line with the separator
+	 */
+	private FlatFile records;
+
+	private String line;
+
+	private int[] fieldPath;
+
+	private FieldSplitter[] fieldSplitters;
+
+	private int[] subFieldPath;
+
+	private FieldSplitter[] subFieldSplitters;
+
+	@Setup
+	public void setUp() throws Exception {
+		lines = new FlatFile();
+		lines.firstLineForTitles = true;
+		lines.setSeparator("", "\t");
+		/* the names of the proteins are split in sub fields */
+		lines.setSeparator("7", "&");
+		lines.load(BenchmarkData.getFlatFile(NB_LINES).toURI().toURL());
+		lines.nextLine();
+		line = lines.getLine();
+
+		fieldPath = lines.compilePath("4");
+		fieldSplitters = lines.getPathSplitters("4");
+		subFieldPath = lines.compilePath("7.1");
+		subFieldSplitters = lines.getPathSplitters("7.1");
+
+		File recordFile = new File(BenchmarkData.getDirectory(), "records-"
+				+ NB_LINES + ".txt");
+		if (false == recordFile.exists()) {
+			Writer out = new BufferedWriter(new FileWriter(recordFile));
+			try {
+				Random random = new Random(NB_LINES);
+				for (int i = 0; i < NB_LINES; i++) {
+					out.write(BenchmarkData.getInteractionLine(i, random));
+					out.write("\n" + RECORD_SEPARATOR + "\n");
+				}
+			} finally {
+				out.close();
+			}
+		}
+		records = new FlatFile();
+		records.lineSeparator = RECORD_SEPARATOR;
+		records.setSeparator("", "\t");
+		records.load(recordFile.toURI().toURL());
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		lines.restartFile();
+		records.restartFile();
+	}
+
+	@Benchmark
+	public String getElementAt() {
+		/* a new line, so that the fields are split again */
+		lines.setLine(line);
+		return lines.getElementAt("4", null);
+	}
+
+	@Benchmark
+	public String getSubElementAt() {
+		lines.setLine(line);
+		return lines.getElementAt("7.1", null);
+	}
+
+	@Benchmark
+	public String getElementAtCompiledPath() {
+		lines.setLine(line);
+		return lines.getElementAt(fieldPath, fieldSplitters);
+	}
+
+	@Benchmark
+	public String getSubElementAtCompiledPath() {
+		lines.setLine(line);
+		return lines.getElementAt(subFieldPath, subFieldSplitters);
+	}
+
+	/**
+	 * fields read several times in the same line, split only once
+	 */
+	@Benchmark
+	public String getElementAtSameLine() {
+		lines.getElementAt("4", null);
+		return lines.getElementAt("7.1", null);
+	}
+
+	@Benchmark
+	public String nextLine() throws Exception {
+		if (lines.getLineNumber() >= NB_LINES)
+			lines.restartFile();
+		lines.nextLine();
+		return lines.getLine();
+	}
+
+	@Benchmark
+	public String nextLineWithLineSeparator() throws Exception {
+		/* each record uses two lines of the file */
+		if (records.getLineNumber() >= 2 * NB_LINES - 2)
+			records.restartFile();
+		records.nextLine();
+		return records.getLine();
+	}
+}
@@ -0,0 +1,85 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
+import psidev.psi.mi.filemakers.xsd.XsdNode;
+
+/**
+ * Flattening of PSI-MI 2.5 documents created by the maker, loaded in memory.
+ * The documents are loaded once, only the writing of the lines is measured.
+ * Bigger documents are flattened by <code>XmlFlattenerStreamingBenchmark</code>.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class XmlFlattenerBenchmark {
+
+	@Param( { "1000", "10000", "100000" })
+	public int nbInteractions;
+
+	private XsdTreeStructImpl flattener;
+
+	@Setup
+	public void setUp() throws Exception {
+		flattener = BenchmarkData.loadFlattener(BenchmarkData
+				.getPsiMiDocument(nbInteractions), false);
+	}
+
+	/**
+	 * the whole flat file, i.e. the maximum counts then each line written by
+	 * <code>writeNode</code>
+	 */
+	@Benchmark
+	public long write() throws Exception {
+		BenchmarkData.NullWriter out = new BenchmarkData.NullWriter();
+		flattener.write(out);
+		return out.getNbChars();
+	}
+
+	/**
+	 * the number of columns of each selected node
+	 */
+	@Benchmark
+	public int getMaxCount() {
+		flattener.maxCounts = new HashMap<XsdNode, Integer>();
+		int nbColumns = 0;
+		for (XsdNode node : flattener.selections)
+			nbColumns += flattener.getMaxCount(node);
+		return nbColumns;
+	}
+}
@@ -0,0 +1,71 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
+
+/**
+ * Flattening of PSI-MI 2.5 documents read as a stream, up to a million
+ * interactions: the document is read again for each flat file, and the
+ * memory used does not depend on its size.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class XmlFlattenerStreamingBenchmark {
+
+	@Param( { "1000", "10000", "100000", "1000000" })
+	public int nbInteractions;
+
+	@Param( { "false", "true" })
+	public boolean singlePass;
+
+	private XsdTreeStructImpl flattener;
+
+	@Setup
+	public void setUp() throws Exception {
+		flattener = BenchmarkData.loadFlattener(BenchmarkData
+				.getPsiMiDocument(nbInteractions), true);
+		flattener.setSinglePass(singlePass);
+	}
+
+	@Benchmark
+	public long write() throws Exception {
+		BenchmarkData.NullWriter out = new BenchmarkData.NullWriter();
+		flattener.write(out);
+		return out.getNbChars();
+	}
+}
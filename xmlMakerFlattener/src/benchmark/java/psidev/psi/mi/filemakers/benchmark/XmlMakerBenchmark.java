@@ -0,0 +1,102 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import psidev.psi.mi.filemakers.xmlMaker.structure.XsdTreeStructImpl;
+import psidev.psi.mi.filemakers.xsd.XsdNode;
+
+/**
+ * Creation of PSI-MI 2.5 documents by the maker, from flat files of
+ * interactions, and the values of the nodes it writes.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class XmlMakerBenchmark {
+
+	@Param( { "1000", "10000", "100000" })
+	public int nbInteractions;
+
+	private XsdTreeStructImpl maker;
+
+	/**
+	 * the nodes associated to a field of the flat file
+	 */
+	private XsdNode[] fieldNodes;
+
+	private int index = 0;
+
+	@Setup
+	public void setUp() throws Exception {
+		maker = BenchmarkData.loadMaker(BenchmarkData
+				.getFlatFile(nbInteractions)).xsdTree;
+		fieldNodes = maker.associatedFields.keySet().toArray(new XsdNode[0]);
+		/* the values are read in the first line after the titles */
+		maker.flatFiles.getFlatFile(0).nextLine();
+	}
+
+	/**
+	 * the whole document
+	 */
+	@Benchmark
+	public long xmlMake() throws Exception {
+		BenchmarkData.NullWriter out = new BenchmarkData.NullWriter();
+		maker.xmlMake(out);
+		return out.getNbChars();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public String getValue() {
+		index = (index + 1) % fieldNodes.length;
+		return maker.getValue(fieldNodes[index]);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public String getXmlValue() {
+		return maker.getXmlValue("NAME&12345");
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public String getXmlValueWithoutSpecialCharacters() {
+		return maker.getXmlValue("P12345");
+	}
+}
@@ -0,0 +1,195 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Destination of a flat file. The file is written through its channel, with
+ * a buffer of configurable size, in an explicit encoding and optionally
+ * compressed.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class FlatFileSink {
+
+	public final static int NO_COMPRESSION = 0;
+
+	public final static int GZIP_COMPRESSION = 1;
+
+	/**
+	 * zlib stream, as written by a <code>Deflater</code>
+	 */
+	public final static int DEFLATE_COMPRESSION = 2;
+
+	public final static int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	public final static String DEFAULT_ENCODING = "UTF-8";
+
+	private File file;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private String encoding = DEFAULT_ENCODING;
+
+	private int compression = NO_COMPRESSION;
+
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	public FlatFileSink(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * open the file. The writer has to be closed to write the end of the
+	 * file.
+	 */
+	public Writer open() throws IOException {
+		OutputStream out = new ChannelOutputStream(new FileOutputStream(file)
+				.getChannel(), bufferSize);
+		switch (compression) {
+		case GZIP_COMPRESSION:
+			out = new GZIPOutputStream(out, bufferSize);
+			break;
+		case DEFLATE_COMPRESSION:
+			out = new DeflaterOutputStream(out,
+					new Deflater(compressionLevel), bufferSize);
+			break;
+		}
+		return new BufferedWriter(new OutputStreamWriter(out, encoding),
+				bufferSize);
+	}
+
+	/**
+	 * @param name
+	 *            "none", "gzip" or "deflate"
+	 * @return the compression, or -1 if the name is unknown
+	 */
+	public static int getCompression(String name) {
+		if ("none".equalsIgnoreCase(name))
+			return NO_COMPRESSION;
+		if ("gzip".equalsIgnoreCase(name))
+			return GZIP_COMPRESSION;
+		if ("deflate".equalsIgnoreCase(name))
+			return DEFLATE_COMPRESSION;
+		return -1;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public int getCompression() {
+		return compression;
+	}
+
+	public void setCompression(int compression) {
+		this.compression = compression;
+	}
+
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * @param compressionLevel
+	 *            from 0 to 9, as for a <code>Deflater</code>
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * write in a channel through a direct buffer
+	 */
+	private static class ChannelOutputStream extends OutputStream {
+		private FileChannel channel;
+
+		private ByteBuffer buffer;
+
+		ChannelOutputStream(FileChannel channel, int bufferSize) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocateDirect(bufferSize);
+		}
+
+		public void write(int b) throws IOException {
+			if (false == buffer.hasRemaining())
+				drain();
+			buffer.put((byte) b);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				if (false == buffer.hasRemaining())
+					drain();
+				int length = Math.min(len, buffer.remaining());
+				buffer.put(b, off, length);
+				off += length;
+				len -= length;
+			}
+		}
+
+		/**
+		 * the data stays in the buffer until it is full: the file is only
+		 * written by large blocks
+		 */
+		public void flush() {
+		}
+
+		public void close() throws IOException {
+			try {
+				drain();
+			} finally {
+				channel.close();
+			}
+		}
+
+		private void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+	}
+}
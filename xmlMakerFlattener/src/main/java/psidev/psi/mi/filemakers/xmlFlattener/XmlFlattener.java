@@ -1,166 +1,279 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
- 
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
- 
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlFlattener;
-
-import java.beans.XMLDecoder;
-import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.HelpFormatter;
-import org.apache.commons.cli.Option;
-import org.apache.commons.cli.Options;
-import org.apache.commons.cli.ParseException;
-import org.apache.commons.cli.PosixParser;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import psidev.psi.mi.filemakers.xmlFlattener.mapping.TreeMapping;
-import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
-import psidev.psi.mi.filemakers.xsd.SimpleMessageManager;
-
-/**
- * Executable class for the flattener, without graphical user interface
- * 
- * Main class for the flattener: load an XML schema as a tree, load a XML
- * document, get selected nodes from the mapping file and write a flat file.
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- * 
- */
-public class XmlFlattener {
-
-	private static final Log log = LogFactory.getLog(XmlFlattener.class);
-
-	public XmlFlattener() {
-		xsdTree = new XsdTreeStructImpl();
-		xsdTree.setMessageManager(new SimpleMessageManager());
-	}
-
-	public static void main(String[] args) throws Exception {
-
-		System.setProperty("java.awt.headless", "true");
-		XmlFlattener f = new XmlFlattener();
-		String mappingFileName = "";
-		String schema = null;
-		String flatFile = null;
-		String xmlDocument = null;
-
-		Options options = new Options();
-
-		Option option = new Option("mapping", true, "Mapping file");
-		option.setRequired(true);
-		options.addOption(option);
-
-		option = new Option("xmlDocument", true, "XML document to parse");
-		option.setRequired(false);
-		options.addOption(option);
-
-		option = new Option("schema", true,
-				"Xsd schema, for instance data/MIF25.xsd");
-		option.setRequired(false);
-		options.addOption(option);
-
-		option = new Option("o", true, "output tab delimited file");
-		option.setRequired(true);
-		options.addOption(option);
-
-		option = new Option(
-				"validate",
-				false,
-				"validate the XML document (required to retrieved XML ids, e.g. with PSI-MI XML 1.0)");
-		option.setRequired(false);
-		options.addOption(option);
-
-		CommandLineParser parser = new PosixParser();
-		CommandLine cmd = null;
-
-		try {
-			// parse the command line arguments
-			cmd = parser.parse(options, args, true);
-		} catch (ParseException exp) {
-			// Oops, something went wrong
-
-			displayUsage(options);
-			System.exit(1);
-		}
-
-		mappingFileName = cmd.getOptionValue("mapping");
-		xmlDocument = cmd.getOptionValue("xmlDocument");
-		schema = cmd.getOptionValue("schema");
-		flatFile = cmd.getOptionValue("o");
-
-		log.info("mapping : " + mappingFileName + ", output : " + flatFile);
-
-		FileInputStream fin = new FileInputStream(mappingFileName);
-
-		// Create XML decoder.
-		XMLDecoder xdec = new XMLDecoder(fin);
-		TreeMapping treeMapping = (TreeMapping) xdec.readObject();
-
-		if (xmlDocument != null) {
-			xmlDocument = xmlDocument.replaceAll("'", "");
-			treeMapping.setDocumentURL(xmlDocument);
-			log.info("xmlDocument : " + xmlDocument);
-		}
-
-		if (schema != null) {
-			treeMapping.setSchemaURL(schema.replaceAll("'", ""));
-			log.info("Xsd schema : " + schema);
-		}
-
-		if (cmd.hasOption("validate")) {
-			log.info("XML document will be validated");
-			f.xsdTree.setValidateDocument(true);
-		}
-
-		f.xsdTree.loadMapping(treeMapping);
-
-		if (log.isErrorEnabled()) {
-			log.error("Messages from XML Parsing:");
-			for (String error : f.xsdTree.xmlErrorHandler.getErrors()) {
-				log.error(error);
-			}
-		}
-
-		PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(
-				flatFile)));
-
-		f.xsdTree.write(writer);
-		writer.flush();
-		writer.close();
-		log.info("Flat file successfully created");
-
-	}
-
-	private XsdTreeStructImpl xsdTree;
-
-	private static void displayUsage(Options options) {
-		HelpFormatter formatter = new HelpFormatter();
-		if (System.getProperty("os.name").toLowerCase().indexOf("windows") > -1) {
-			formatter.printHelp("bin/xmlflattener.bat ", options);
-		} else {
-			formatter.printHelp("sh bin/xmlflattener ", options);
-		}
-	}
-
-	public XsdTreeStructImpl getXsdTree() {
-		return xsdTree;
-	}
-
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ 
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+ 
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener;
+
+import java.beans.XMLDecoder;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.Writer;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import psidev.psi.mi.filemakers.xmlFlattener.mapping.TreeMapping;
+import psidev.psi.mi.filemakers.xmlFlattener.structure.ProgressListener;
+import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
+import psidev.psi.mi.filemakers.xsd.SimpleMessageManager;
+
+/**
+ * Executable class for the flattener, without graphical user interface
+ * 
+ * Main class for the flattener: load an XML schema as a tree, load a XML
+ * document, get selected nodes from the mapping file and write a flat file.
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ * 
+ */
+public class XmlFlattener {
+
+	private static final Log log = LogFactory.getLog(XmlFlattener.class);
+
+	/**
+	 * number of lines between two progress messages
+	 */
+	private static final int PROGRESS_INTERVAL = 10000;
+
+	public XmlFlattener() {
+		xsdTree = new XsdTreeStructImpl();
+		xsdTree.setMessageManager(new SimpleMessageManager());
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		System.setProperty("java.awt.headless", "true");
+		XmlFlattener f = new XmlFlattener();
+		String mappingFileName = "";
+		String schema = null;
+		String flatFile = null;
+		String xmlDocument = null;
+
+		Options options = new Options();
+
+		Option option = new Option("mapping", true, "Mapping file");
+		option.setRequired(true);
+		options.addOption(option);
+
+		option = new Option("xmlDocument", true, "XML document to parse");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("schema", true,
+				"Xsd schema, for instance data/MIF25.xsd");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("o", true, "output tab delimited file");
+		option.setRequired(true);
+		options.addOption(option);
+
+		option = new Option(
+				"validate",
+				false,
+				"validate the XML document (required to retrieved XML ids, e.g. with PSI-MI XML 1.0)");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("stream", false,
+				"read the XML document as a stream instead of loading it in memory, for big documents");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("singlePass", false,
+				"read the XML document only once, keeping the lines in a temporary file until the columns are known");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("compression", true,
+				"compression of the flat file: none (default), gzip or deflate");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("bufferSize", true,
+				"size of the output buffer, in bytes (65536 by default)");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("encoding", true,
+				"encoding of the flat file (UTF-8 by default)");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("threads", true,
+				"number of threads writing the lines of the flat file (1 by default)");
+		option.setRequired(false);
+		options.addOption(option);
+
+		CommandLineParser parser = new PosixParser();
+		CommandLine cmd = null;
+
+		try {
+			// parse the command line arguments
+			cmd = parser.parse(options, args, true);
+		} catch (ParseException exp) {
+			// Oops, something went wrong
+
+			displayUsage(options);
+			System.exit(1);
+		}
+
+		mappingFileName = cmd.getOptionValue("mapping");
+		xmlDocument = cmd.getOptionValue("xmlDocument");
+		schema = cmd.getOptionValue("schema");
+		flatFile = cmd.getOptionValue("o");
+
+		log.info("mapping : " + mappingFileName + ", output : " + flatFile);
+
+		FileInputStream fin = new FileInputStream(mappingFileName);
+
+		// Create XML decoder.
+		XMLDecoder xdec = new XMLDecoder(fin);
+		TreeMapping treeMapping = (TreeMapping) xdec.readObject();
+
+		if (xmlDocument != null) {
+			xmlDocument = xmlDocument.replaceAll("'", "");
+			treeMapping.setDocumentURL(xmlDocument);
+			log.info("xmlDocument : " + xmlDocument);
+		}
+
+		if (schema != null) {
+			treeMapping.setSchemaURL(schema.replaceAll("'", ""));
+			log.info("Xsd schema : " + schema);
+		}
+
+		if (cmd.hasOption("validate")) {
+			log.info("XML document will be validated");
+			f.xsdTree.setValidateDocument(true);
+		}
+
+		if (cmd.hasOption("stream")) {
+			log.info("XML document will be read as a stream");
+			if (cmd.hasOption("validate"))
+				log.warn("XML ids are not resolved when the document is read as a stream");
+			f.xsdTree.setStreaming(true);
+		}
+
+		if (cmd.hasOption("singlePass")) {
+			log.info("XML document will be read only once");
+			f.xsdTree.setSinglePass(true);
+		}
+
+		if (cmd.hasOption("threads")) {
+			int nbThreads;
+			try {
+				nbThreads = Integer.parseInt(cmd.getOptionValue("threads"));
+			} catch (NumberFormatException e) {
+				nbThreads = 0;
+			}
+			if (nbThreads < 1) {
+				displayUsage(options);
+				System.exit(1);
+			}
+			if (nbThreads > 1) {
+				if (cmd.hasOption("stream") || cmd.hasOption("singlePass"))
+					log.warn("the lines are written by only one thread when the document is read as a stream or only once");
+				else
+					log.info("the lines will be written by " + nbThreads
+							+ " threads");
+			}
+			f.xsdTree.setNbThreads(nbThreads);
+		}
+
+		int bufferSize = 0;
+		if (cmd.hasOption("bufferSize")) {
+			try {
+				bufferSize = Integer.parseInt(cmd.getOptionValue("bufferSize"));
+			} catch (NumberFormatException e) {
+				bufferSize = 0;
+			}
+			if (bufferSize <= 0) {
+				displayUsage(options);
+				System.exit(1);
+			}
+		}
+
+		f.xsdTree.loadMapping(treeMapping);
+
+		if (log.isErrorEnabled()) {
+			log.error("Messages from XML Parsing:");
+			for (String error : f.xsdTree.xmlErrorHandler.getReport()) {
+				log.error(error);
+			}
+		}
+
+		FlatFileSink sink = new FlatFileSink(new File(flatFile));
+		if (cmd.hasOption("compression")) {
+			int compression = FlatFileSink.getCompression(cmd
+					.getOptionValue("compression"));
+			if (compression < 0) {
+				displayUsage(options);
+				System.exit(1);
+			}
+			sink.setCompression(compression);
+		}
+		if (bufferSize > 0)
+			sink.setBufferSize(bufferSize);
+		if (cmd.hasOption("encoding"))
+			sink.setEncoding(cmd.getOptionValue("encoding"));
+
+		f.xsdTree.setProgressListener(new ProgressListener() {
+			/**
+			 * the lines may be reported by blocks, the total does not always
+			 * go through the multiples of the interval
+			 */
+			private int nextReport = PROGRESS_INTERVAL;
+
+			public void linesWritten(int nbLines) {
+				if (nbLines >= nextReport) {
+					log.info(nbLines + " lines written");
+					nextReport = (nbLines / PROGRESS_INTERVAL + 1)
+							* PROGRESS_INTERVAL;
+				}
+			}
+		});
+
+		Writer writer = sink.open();
+		try {
+			f.xsdTree.write(writer);
+		} finally {
+			writer.close();
+		}
+		log.info("Flat file successfully created");
+
+	}
+
+	private XsdTreeStructImpl xsdTree;
+
+	private static void displayUsage(Options options) {
+		HelpFormatter formatter = new HelpFormatter();
+		if (System.getProperty("os.name").toLowerCase().indexOf("windows") > -1) {
+			formatter.printHelp("bin/xmlflattener.bat ", options);
+		} else {
+			formatter.printHelp("sh bin/xmlflattener ", options);
+		}
+	}
+
+	public XsdTreeStructImpl getXsdTree() {
+		return xsdTree;
+	}
+
 }
\ No newline at end of file
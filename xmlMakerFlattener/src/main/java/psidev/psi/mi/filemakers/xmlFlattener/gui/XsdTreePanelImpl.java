@@ -25,10 +25,8 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.net.URL;
 
 import javax.swing.Box;
@@ -58,6 +56,7 @@ import org.exolab.castor.xml.schema.Structure;
 import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
+import psidev.psi.mi.filemakers.xmlFlattener.FlatFileSink;
 import psidev.psi.mi.filemakers.xmlFlattener.structure.XsdTreeStructImpl;
 import psidev.psi.mi.filemakers.xsd.MessageManagerInt;
 import psidev.psi.mi.filemakers.xsd.Utils;
@@ -316,7 +315,7 @@ public class XsdTreePanelImpl extends psidev.psi.mi.filemakers.xsd.AbstractXsdTr
 			}
 			loadDocument();
 
-			for (String error : xsdTree.xmlErrorHandler.getErrors()) {
+			for (String error : xsdTree.xmlErrorHandler.getReport()) {
 				xsdTree.getMessageManager().sendMessage(error, MessageManagerInt.errorMessage);
 			}
 
@@ -343,7 +342,7 @@ public class XsdTreePanelImpl extends psidev.psi.mi.filemakers.xsd.AbstractXsdTr
 			}
 			exampleLine = null;
 
-			for (String error : xsdTree.xmlErrorHandler.getErrors()) {
+			for (String error : xsdTree.xmlErrorHandler.getReport()) {
 				xsdTree.getMessageManager().sendMessage(error, MessageManagerInt.errorMessage);
 			}
 
@@ -412,13 +411,14 @@ public class XsdTreePanelImpl extends psidev.psi.mi.filemakers.xsd.AbstractXsdTr
 				Utils.lastVisitedOutputDirectory = fileChooser
 						.getSelectedFile().getPath();
 
-				PrintWriter out = new PrintWriter(new BufferedWriter(
-						new FileWriter(fileChooser.getSelectedFile())));
-
-				((XsdTreeStructImpl) xsdTree).resetCount();
-				((XsdTreeStructImpl) xsdTree).write(out);
-				out.flush();
-				out.close();
+				Writer out = new FlatFileSink(fileChooser.getSelectedFile())
+						.open();
+				try {
+					((XsdTreeStructImpl) xsdTree).resetCount();
+					((XsdTreeStructImpl) xsdTree).write(out);
+				} finally {
+					out.close();
+				}
 			} catch (IOException ex) {
 				xsdTree.getMessageManager().sendMessage("unable to write file", MessageManagerInt.errorMessage);
 			}
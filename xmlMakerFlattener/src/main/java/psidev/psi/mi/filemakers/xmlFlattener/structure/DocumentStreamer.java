@@ -0,0 +1,399 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener.structure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Read an XML document with a StAX parser and give its records, i.e. the
+ * elements associated to a line of the flat file, one at a time. The document
+ * is never loaded entirely: only the current record is built as a DOM element,
+ * with its ancestors, and it is removed from the document once handled.
+ *
+ * The elements that can be referred by an xs:key are kept, and indexed by
+ * key, until the end of the element in which the key is declared. They have
+ * to appear in the document before the references to them, as in PSI-MI
+ * documents where the experiments and interactors are listed before the
+ * interactions.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class DocumentStreamer {
+
+	private static final Log log = LogFactory.getLog(DocumentStreamer.class);
+
+	/**
+	 * receive the records of the document
+	 */
+	public interface RecordHandler {
+		/**
+		 * @param record
+		 *            the element associated to a line, attached to its
+		 *            ancestors. It is removed from the document after this
+		 *            call.
+		 */
+		public void handleRecord(Element record) throws IOException;
+	}
+
+	/**
+	 * names of the elements from the root to the records. The name of the
+	 * root is not checked.
+	 */
+	private String[] recordPath;
+
+	/**
+	 * key names, by path of the element containing the referred elements
+	 */
+	private HashMap<String, ArrayList<String>> keyContainers = new HashMap<String, ArrayList<String>>();
+
+	/**
+	 * key names, by path of the element in which the key is declared
+	 */
+	private HashMap<String, ArrayList<String>> keyScopes = new HashMap<String, ArrayList<String>>();
+
+	/**
+	 * paths of the containers and of their ancestors, which stay in the
+	 * document until the end of the key scope
+	 */
+	private HashSet<String> keptPaths = new HashSet<String>();
+
+	/**
+	 * the referred elements, by key name and id
+	 */
+	private ReferenceIndex references;
+
+	private int nbRecords;
+
+	/**
+	 * @param recordPath
+	 *            names of the elements from the root to the records
+	 */
+	public DocumentStreamer(String[] recordPath) {
+		this.recordPath = recordPath;
+	}
+
+	/**
+	 * keep the elements referred by a key
+	 *
+	 * @param keyName
+	 *            the name of the key
+	 * @param scopePath
+	 *            the path of the element in which the key is declared, from
+	 *            the root
+	 * @param selectorPath
+	 *            the path of the referred elements, from the root
+	 */
+	public void addKey(String keyName, String scopePath, String selectorPath) {
+		int index = selectorPath.lastIndexOf('/');
+		if (index < 0)
+			return;
+		String containerPath = selectorPath.substring(0, index);
+		add(keyContainers, containerPath, keyName);
+		add(keyScopes, scopePath, keyName);
+		String path = containerPath;
+		while (true) {
+			keptPaths.add(path);
+			index = path.lastIndexOf('/');
+			if (index < 0)
+				break;
+			path = path.substring(0, index);
+		}
+	}
+
+	private static void add(HashMap<String, ArrayList<String>> map,
+			String path, String keyName) {
+		ArrayList<String> names = map.get(path);
+		if (names == null) {
+			names = new ArrayList<String>();
+			map.put(path, names);
+		}
+		names.add(keyName);
+	}
+
+	/**
+	 * read the document and give each record to the handler
+	 *
+	 * @param references
+	 *            filled with the referred elements
+	 * @return the number of records found
+	 */
+	public int stream(URL url, ReferenceIndex references,
+			RecordHandler handler) throws IOException {
+		this.references = references;
+		nbRecords = 0;
+		InputStream in = url.openStream();
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE,
+					Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+			XMLStreamReader reader = factory.createXMLStreamReader(url
+					.toString(), in);
+			try {
+				read(reader, handler);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			IOException ioe = new IOException("unable to read "
+					+ url.toString() + ": " + e.getMessage());
+			ioe.initCause(e);
+			throw ioe;
+		} catch (ParserConfigurationException e) {
+			IOException ioe = new IOException(e.getMessage());
+			ioe.initCause(e);
+			throw ioe;
+		} finally {
+			in.close();
+		}
+		log.debug(nbRecords + " records found");
+		return nbRecords;
+	}
+
+	private void read(XMLStreamReader reader, RecordHandler handler)
+			throws XMLStreamException, ParserConfigurationException,
+			IOException {
+		Document document = DocumentBuilderFactory.newInstance()
+				.newDocumentBuilder().newDocument();
+
+		/* path of the record, including the name of the root */
+		String fullRecordPath = null;
+
+		/* the ancestors of the records and of the referred elements */
+		ArrayList<Node> ancestors = new ArrayList<Node>();
+		ArrayList<String> ancestorPaths = new ArrayList<String>();
+		ancestors.add(document);
+		ancestorPaths.add("");
+
+		/* depth in an element that is not kept */
+		int skipDepth = 0;
+
+		/* the record or referred element being built */
+		Element built = null;
+		boolean builtIsRecord = false;
+		String builtPath = null;
+		Node current = null;
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT:
+				if (skipDepth > 0) {
+					skipDepth++;
+					break;
+				}
+				if (built != null) {
+					Element element = createElement(document, reader);
+					current.appendChild(element);
+					current = element;
+					break;
+				}
+
+				String name = getName(reader.getPrefix(), reader.getLocalName());
+				String parentPath = ancestorPaths.get(ancestorPaths.size() - 1);
+				String path = parentPath.length() == 0 ? name : parentPath
+						+ "/" + name;
+				if (fullRecordPath == null) {
+					fullRecordPath = name;
+					for (int i = 1; i < recordPath.length; i++)
+						fullRecordPath += "/" + recordPath[i];
+				}
+
+				boolean isRecord = path.equals(fullRecordPath);
+				if (isRecord || keyContainers.containsKey(parentPath)) {
+					built = createElement(document, reader);
+					builtIsRecord = isRecord;
+					builtPath = path;
+					ancestors.get(ancestors.size() - 1).appendChild(built);
+					current = built;
+				} else if (fullRecordPath.startsWith(path + "/")
+						|| keptPaths.contains(path)) {
+					Element element = createElement(document, reader);
+					ancestors.get(ancestors.size() - 1).appendChild(element);
+					ancestors.add(element);
+					ancestorPaths.add(path);
+				} else {
+					skipDepth = 1;
+				}
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+				if (skipDepth > 0) {
+					skipDepth--;
+					break;
+				}
+				if (built != null) {
+					if (current != built) {
+						current = current.getParentNode();
+						break;
+					}
+					Node parent = built.getParentNode();
+					boolean isReferred = index(built, ancestorPaths
+							.get(ancestorPaths.size() - 1));
+					indexContent(built, builtPath);
+					if (builtIsRecord) {
+						nbRecords++;
+						handler.handleRecord(built);
+					}
+					/* keys declared in the element are not needed anymore */
+					for (String scopePath : keyScopes.keySet()) {
+						if (scopePath.equals(builtPath)
+								|| scopePath.startsWith(builtPath + "/"))
+							removeKeys(keyScopes.get(scopePath));
+					}
+					if (false == isReferred)
+						parent.removeChild(built);
+					built = null;
+					current = null;
+					break;
+				}
+
+				Node element = ancestors.remove(ancestors.size() - 1);
+				String elementPath = ancestorPaths
+						.remove(ancestorPaths.size() - 1);
+				ArrayList<String> scopedKeys = keyScopes.get(elementPath);
+				if (scopedKeys != null) {
+					removeKeys(scopedKeys);
+					element.getParentNode().removeChild(element);
+				} else if (false == keptPaths.contains(elementPath)) {
+					element.getParentNode().removeChild(element);
+				}
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+				if (built != null) {
+					/* adjacent texts are merged, as in a parsed document */
+					Node last = current.getLastChild();
+					if (last != null && last.getNodeType() == Node.TEXT_NODE)
+						last.setNodeValue(last.getNodeValue()
+								+ reader.getText());
+					else
+						current.appendChild(document.createTextNode(reader
+								.getText()));
+				}
+				break;
+
+			case XMLStreamConstants.CDATA:
+				if (built != null)
+					current.appendChild(document.createCDATASection(reader
+							.getText()));
+				break;
+
+			case XMLStreamConstants.COMMENT:
+				if (built != null)
+					current.appendChild(document.createComment(reader
+							.getText()));
+				break;
+
+			default:
+				break;
+			}
+		}
+	}
+
+	private static String getName(String prefix, String localName) {
+		if (prefix == null || prefix.length() == 0)
+			return localName;
+		return prefix + ":" + localName;
+	}
+
+	private static Element createElement(Document document,
+			XMLStreamReader reader) {
+		Element element = document.createElementNS(reader.getNamespaceURI(),
+				getName(reader.getPrefix(), reader.getLocalName()));
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String prefix = reader.getAttributePrefix(i);
+			if (prefix == null || prefix.length() == 0)
+				element.setAttribute(reader.getAttributeLocalName(i), reader
+						.getAttributeValue(i));
+			else
+				element.setAttributeNS(reader.getAttributeNamespace(i),
+						getName(prefix, reader.getAttributeLocalName(i)),
+						reader.getAttributeValue(i));
+		}
+		return element;
+	}
+
+	/**
+	 * index the element if it can be referred
+	 *
+	 * @return true if the element has been kept
+	 */
+	private boolean index(Element element, String parentPath) {
+		ArrayList<String> keyNames = keyContainers.get(parentPath);
+		if (keyNames == null)
+			return false;
+		String id = element.getAttribute("id");
+		if (id == null || id.length() == 0)
+			return false;
+		for (String keyName : keyNames)
+			references.putElement(keyName, id, element);
+		return true;
+	}
+
+	/**
+	 * index the referred elements contained in an element. As in a parsed
+	 * document, only the first container found is used.
+	 */
+	private void indexContent(Element element, String path) {
+		for (String containerPath : keyContainers.keySet()) {
+			if (false == containerPath.startsWith(path + "/"))
+				continue;
+			String[] names = containerPath.substring(path.length() + 1)
+					.split("/");
+			Node container = element;
+			for (int i = 0; i < names.length && container != null; i++) {
+				Node child = container.getFirstChild();
+				while (child != null
+						&& false == names[i].equals(child.getNodeName()))
+					child = child.getNextSibling();
+				container = child;
+			}
+			if (container == null)
+				continue;
+			for (Node child = container.getFirstChild(); child != null; child = child
+					.getNextSibling()) {
+				if (child.getNodeType() == Node.ELEMENT_NODE)
+					index((Element) child, containerPath);
+			}
+		}
+	}
+
+	private void removeKeys(ArrayList<String> keyNames) {
+		for (String keyName : keyNames)
+			references.removeElements(keyName);
+	}
+}
@@ -0,0 +1,35 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener.structure;
+
+/**
+ * Follow the writing of a flat file.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public interface ProgressListener {
+
+	/**
+	 * called when lines have been written, from the thread writing the file
+	 *
+	 * @param nbLines
+	 *            the number of lines written since the beginning of the file,
+	 *            without the title
+	 */
+	public void linesWritten(int nbLines);
+
+}
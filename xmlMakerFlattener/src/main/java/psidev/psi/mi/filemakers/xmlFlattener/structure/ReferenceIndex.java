@@ -0,0 +1,186 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener.structure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Index of the references declared by xs:keyref and of the elements they
+ * refer, declared by xs:key.
+ *
+ * The paths of the references are compiled when the schema is loaded: the
+ * names of the elements are replaced by numbers and the paths are kept in a
+ * tree, from the last name to the root. An element is recognized as a
+ * reference by going up to its ancestors only as long as their names match a
+ * path, so that for most elements only their own name is looked at.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class ReferenceIndex {
+
+	/**
+	 * a name in the paths of the references, with the names that can precede
+	 * it
+	 */
+	private class PathNode {
+		PathNode[] parents = new PathNode[0];
+
+		/**
+		 * the key referred if the path from the root ends here, -1 otherwise
+		 */
+		int referredKey = -1;
+
+		PathNode getParent(int nameId) {
+			return nameId < parents.length ? parents[nameId] : null;
+		}
+
+		PathNode addParent(int nameId) {
+			if (nameId >= parents.length) {
+				PathNode[] newParents = new PathNode[nameId + 1];
+				System.arraycopy(parents, 0, newParents, 0, parents.length);
+				parents = newParents;
+			}
+			if (parents[nameId] == null)
+				parents[nameId] = new PathNode();
+			return parents[nameId];
+		}
+	}
+
+	/**
+	 * numbers of the element names found in the paths of the references
+	 */
+	private HashMap<String, Integer> nameIds = new HashMap<String, Integer>();
+
+	private PathNode lastNames = new PathNode();
+
+	/**
+	 * numbers of the keys
+	 */
+	private HashMap<String, Integer> keyIds = new HashMap<String, Integer>();
+
+	/**
+	 * the elements referred, by id, for each key
+	 */
+	private ArrayList<HashMap<String, Element>> keyElements = new ArrayList<HashMap<String, Element>>();
+
+	/**
+	 * @param path
+	 *            the path from the root of the references, names separated by
+	 *            '/'
+	 * @param keyName
+	 *            the key referred
+	 */
+	public void addReference(String path, String keyName) {
+		String[] names = path.split("/");
+		PathNode pathNode = lastNames;
+		for (int i = names.length - 1; i >= 0; i--) {
+			Integer nameId = nameIds.get(names[i]);
+			if (nameId == null) {
+				nameId = new Integer(nameIds.size());
+				nameIds.put(names[i], nameId);
+			}
+			pathNode = pathNode.addParent(nameId.intValue());
+		}
+		pathNode.referredKey = getKeyId(keyName);
+	}
+
+	private int getKeyId(String keyName) {
+		Integer keyId = keyIds.get(keyName);
+		if (keyId == null) {
+			keyId = new Integer(keyIds.size());
+			keyIds.put(keyName, keyId);
+			keyElements.add(new HashMap<String, Element>());
+		}
+		return keyId.intValue();
+	}
+
+	/**
+	 * @return the number of the key referred by this element, or -1 if it is
+	 *         not a reference
+	 */
+	private int getReferredKey(Node node) {
+		PathNode pathNode = lastNames;
+		while (node != null && node.getNodeType() != Node.DOCUMENT_NODE) {
+			Integer nameId = nameIds.get(node.getNodeName());
+			if (nameId == null)
+				return -1;
+			pathNode = pathNode.getParent(nameId.intValue());
+			if (pathNode == null)
+				return -1;
+			node = node.getParentNode();
+		}
+		if (node == null)
+			return -1;
+		return pathNode.referredKey;
+	}
+
+	/**
+	 * @return true if the element is a reference declared by an xs:keyref
+	 */
+	public boolean isReference(Node node) {
+		return getReferredKey(node) >= 0;
+	}
+
+	/**
+	 * @return the element referred, or null if the node is not a reference
+	 *         or if the element has not been found
+	 */
+	public Element getReferredElement(Node node, String id) {
+		int keyId = getReferredKey(node);
+		if (keyId < 0)
+			return null;
+		return keyElements.get(keyId).get(id);
+	}
+
+	/**
+	 * keep an element that can be referred
+	 */
+	public void putElement(String keyName, String id, Element element) {
+		keyElements.get(getKeyId(keyName)).put(id, element);
+	}
+
+	/**
+	 * forget the elements of a key
+	 */
+	public void removeElements(String keyName) {
+		Integer keyId = keyIds.get(keyName);
+		if (keyId != null)
+			keyElements.get(keyId.intValue()).clear();
+	}
+
+	/**
+	 * forget the elements of all keys
+	 */
+	public void removeElements() {
+		for (HashMap<String, Element> elements : keyElements)
+			elements.clear();
+	}
+
+	/**
+	 * forget the references and the elements
+	 */
+	public void clear() {
+		nameIds.clear();
+		lastNames = new PathNode();
+		keyIds.clear();
+		keyElements.clear();
+	}
+}
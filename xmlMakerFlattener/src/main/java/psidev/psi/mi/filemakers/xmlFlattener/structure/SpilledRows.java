@@ -0,0 +1,131 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlFlattener.structure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Temporary file in which the lines of the flat file are written before the
+ * amount of columns is known. A line is a list of values and of paddings: a
+ * padding is kept as the node that has less elements than expected and the
+ * amount of elements found, and is replaced by empty columns when the file is
+ * read again.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class SpilledRows {
+
+	public final static byte VALUE = 0;
+
+	public final static byte PADDING = 1;
+
+	public final static byte END_OF_ROW = 2;
+
+	private File file;
+
+	private DataOutputStream out;
+
+	private DataInputStream in;
+
+	private int nbRows = 0;
+
+	public SpilledRows() throws IOException {
+		file = File.createTempFile("flattener", ".rows");
+		file.deleteOnExit();
+		out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 65536));
+	}
+
+	public void writeValue(String value) throws IOException {
+		out.writeByte(VALUE);
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * @param nodeIndex
+	 *            index of the node in the tree
+	 * @param nbElementFound
+	 *            number of elements written for this node
+	 */
+	public void writePadding(int nodeIndex, int nbElementFound)
+			throws IOException {
+		out.writeByte(PADDING);
+		out.writeInt(nodeIndex);
+		out.writeInt(nbElementFound);
+	}
+
+	public void endRow() throws IOException {
+		out.writeByte(END_OF_ROW);
+		nbRows++;
+	}
+
+	public int getNbRows() {
+		return nbRows;
+	}
+
+	/**
+	 * stop writing and prepare the file to be read
+	 */
+	public void rewind() throws IOException {
+		out.close();
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(
+				file), 65536));
+	}
+
+	/**
+	 * @return the type of the next item: VALUE, PADDING or END_OF_ROW
+	 */
+	public byte readType() throws IOException {
+		return in.readByte();
+	}
+
+	public String readValue() throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	/**
+	 * @return the index of the node and the number of elements found
+	 */
+	public int[] readPadding() throws IOException {
+		return new int[] { in.readInt(), in.readInt() };
+	}
+
+	/**
+	 * close and delete the file
+	 */
+	public void delete() {
+		try {
+			if (in != null)
+				in.close();
+			out.close();
+		} catch (IOException e) {
+			/* the file is deleted anyway */
+		}
+		file.delete();
+	}
+}
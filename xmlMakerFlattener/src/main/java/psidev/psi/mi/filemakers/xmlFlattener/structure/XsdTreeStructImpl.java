@@ -23,9 +23,14 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.swing.tree.TreeNode;
 import javax.xml.parsers.DocumentBuilder;
@@ -44,7 +49,10 @@ import org.xml.sax.SAXException;
 
 import psidev.psi.mi.filemakers.xmlFlattener.mapping.TreeMapping;
 import psidev.psi.mi.filemakers.xsd.AbstractXsdTreeStruct;
+import psidev.psi.mi.filemakers.xsd.SchemaKey;
+import psidev.psi.mi.filemakers.xsd.SchemaValidator;
 import psidev.psi.mi.filemakers.xsd.Utils;
+import psidev.psi.mi.filemakers.xsd.ValueFilter;
 import psidev.psi.mi.filemakers.xsd.XsdNode;
 
 /**
@@ -123,6 +131,53 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	 */
 	private static boolean validateDocument = false;
 
+	/**
+	 * if true, the document is read as a stream by a DocumentStreamer instead
+	 * of being loaded in memory, so that only one record at a time is kept.
+	 */
+	private boolean streaming = false;
+
+	/**
+	 * if true, the document is read only once: the lines are written in a
+	 * temporary file while the maximum amount of each element is computed,
+	 * then copied in the flat file with the empty columns.
+	 */
+	private boolean singlePass = false;
+
+	/**
+	 * the temporary file in which the lines are written in single pass mode,
+	 * null otherwise
+	 */
+	private SpilledRows spilledRows = null;
+
+	/**
+	 * index of the used nodes, for the paddings in the temporary file
+	 */
+	private HashMap<XsdNode, Integer> spilledNodeIndexes = null;
+
+	/**
+	 * number of threads writing the lines, the lines are written by the
+	 * current thread if lower than 2
+	 */
+	private int nbThreads = 1;
+
+	/**
+	 * informed of the lines written, may be null
+	 */
+	private ProgressListener progressListener = null;
+
+	private int nbLinesWritten = 0;
+
+	/**
+	 * number of lines written by a thread at once
+	 */
+	private final static int LINES_BY_TASK = 256;
+
+	/**
+	 * Xerces feature: create all nodes when the document is parsed
+	 */
+	private final static String DEFER_NODE_EXPANSION = "http://apache.org/xml/features/dom/defer-node-expansion";
+
 	/**
 	 * type of marshaling: for not creating a line with columns titles
 	 */
@@ -144,6 +199,12 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	 */
 	private HashMap<XsdNode, String> elementFilters = new HashMap<XsdNode, String>();
 
+	/**
+	 * the regular expressions of elementFilters, compiled once when the
+	 * mapping is loaded
+	 */
+	private HashMap<XsdNode, ValueFilter> compiledFilters = new HashMap<XsdNode, ValueFilter>();
+
 	/**
 	 * set the separator for the flat file
 	 * 
@@ -183,6 +244,7 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 		}
 		lineXsdNode = null;
 		elementFilters = new HashMap<XsdNode, String>();
+		compiledFilters = new HashMap<XsdNode, ValueFilter>();
 	}
 
 	// HashMap referencedElements = new HashMap();
@@ -198,10 +260,17 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		factory.setNamespaceAware(true);
-		factory.setValidating(validateDocument);
-
-		factory.setAttribute(SCHEMA_LANGUAGE, XML_SCHEMA);
-		factory.setAttribute(SCHEMA_SOURCE, schemaURL);
+		if (validateDocument) {
+			/* the schema is compiled only once */
+			factory.setSchema(SchemaValidator.get(schemaURL).getSchema());
+		}
+		if (nbThreads > 1) {
+			/*
+			 * the nodes of a deferred document are created when first read,
+			 * it cannot be read by several threads
+			 */
+			factory.setAttribute(DEFER_NODE_EXPANSION, Boolean.FALSE);
+		}
 		try {
 			DocumentBuilder builder = factory.newDocumentBuilder();
 			log.debug("XML document url: "+url.toString());
@@ -229,7 +298,10 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 		}
 	}
 
-	private HashMap<String, Node> xsKeyNodes = new HashMap<String, Node>();
+	/**
+	 * the references declared by xs:keyref and the elements they refer
+	 */
+	private ReferenceIndex references = new ReferenceIndex();
 
 	private void getKeyNodes(String keyName, String keySelector, String keyField) {
 
@@ -258,8 +330,9 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 							idFieldName)) {
 						String ref = child.getAttributes().item(j)
 								.getNodeValue();
-						xsKeyNodes.put(keyName + "#" + ref, child);// keyName
-						log.debug("add: " + keyName + "#" + ref);
+						references.putElement(keyName, ref, (Element) child);
+						if (log.isDebugEnabled())
+							log.debug("add: " + keyName + "#" + ref);
 					}
 				}
 			}
@@ -293,91 +366,24 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	private void buidKeyMaps() {
 
 		log.debug("get keys");
-		for (Node node : keyz) {
-			String keyName = null;
-			String keySelector = null;
+		references.removeElements();
+		for (SchemaKey key : keyz) {
 			String keyField = null;
-
-			if (node.hasAttributes()) {
-				for (int i = 0; i < node.getAttributes().getLength(); i++) {
-					if (node.getAttributes().item(i).getNodeName().equals(
-							"name")) {
-						keyName = node.getAttributes().item(i).getNodeValue();
-
-					}
-				}
-			}
-
-			for (int i = 0; i < node.getChildNodes().getLength(); i++) {
-				Node child = node.getChildNodes().item(i);
-
-				if (child.getNodeName().equals("xs:selector")) {
-					for (int j = 0; j < child.getAttributes().getLength(); j++) {
-						if (child.getAttributes().item(j).getNodeName().equals(
-								"xpath")) {
-							keySelector = getXpath(child.getParentNode()
-									.getParentNode())
-									+ "/"
-									+ child.getAttributes().item(j)
-											.getNodeValue();
-						}
-					}
-				} else if (child.getNodeName().equals("xs:field")) {
-					for (int j = 0; j < child.getAttributes().getLength(); j++) {
-						if (child.getAttributes().item(j).getNodeName().equals(
-								"xpath")) {
-							keyField = child.getAttributes().item(j)
-									.getNodeValue().replace("@", "");
-						}
-					}
-				}
-			}
-			getKeyNodes(keyName, keySelector, keyField);
-
+			if (key.getField() != null)
+				keyField = key.getField().replace("@", "");
+			getKeyNodes(key.getName(), key.getSelectorPath(), keyField);
 		}
 
+		buildKeyRefMap();
+	}
+
+	private void buildKeyRefMap() {
 		log.debug("get keyRefs");
-		for (Node node : keyRefs) {
-			String keyRefName = null;
-			String keyRefRefer = null;
-			String keyRefSelector = null;
-			String keyRefField = null;
-
-			if (node.hasAttributes()) {
-				for (int i = 0; i < node.getAttributes().getLength(); i++) {
-					if (node.getAttributes().item(i).getNodeName().equals(
-							"name")) {
-						keyRefName = node.getAttributes().item(i)
-								.getNodeValue();
-					} else if (node.getAttributes().item(i).getNodeName()
-							.equals("refer")) {
-						keyRefRefer = node.getAttributes().item(i)
-								.getNodeValue();
-					}
-				}
-			}
-			for (int i = 0; i < node.getChildNodes().getLength(); i++) {
-				Node child = node.getChildNodes().item(i);
-				if (child.getNodeName().equals("xs:selector")) {
-					for (int j = 0; j < child.getAttributes().getLength(); j++) {
-						if (child.getAttributes().item(j).getNodeName().equals(
-								"xpath")) {
-							keyRefSelector = child.getAttributes().item(j)
-									.getNodeValue();
-						}
-					}
-				} else if (child.getNodeName().equals("xs:field")) {
-					for (int j = 0; j < child.getAttributes().getLength(); j++) {
-						if (child.getAttributes().item(j).getNodeName().equals(
-								"xpath")) {
-							keyRefField = child.getAttributes().item(j)
-									.getNodeValue();
-						}
-					}
-				}
-			}
-			refType2referedType.put(getSchemaXpath(node.getParentNode()) + "/"
-					+ keyRefSelector, keyRefRefer);
+		for (SchemaKey keyRef : keyRefs) {
+			refType2referedType.put(keyRef.getSelectorPath(), keyRef
+					.getRefer());
+			references.addReference(keyRef.getSelectorPath(), keyRef
+					.getRefer());
 		}
 	}
 
@@ -456,16 +462,16 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	 */
 	public String getElementValue(Element element) {
 		try {
-			NodeList children = element.getChildNodes();
 			String value = "";
-			for (int i = 0; i < children.getLength(); i++) {
-				if (children.item(i).getNodeType() == Node.ATTRIBUTE_NODE) {
-					if (elementFilters.containsKey(children.item(i))) {
+			for (Node child = element.getFirstChild(); child != null; child = child
+					.getNextSibling()) {
+				if (child.getNodeType() == Node.ATTRIBUTE_NODE) {
+					if (compiledFilters.containsKey(child)) {
 						try {
-							String value2 = children.item(i).getNodeValue();
+							String value2 = child.getNodeValue();
 							/** TODO: done for managing filter */
-							if (false == value2.matches((String) elementFilters
-									.get(children.item(i)))) {
+							if (false == compiledFilters.get(child).matches(
+									value2)) {
 								return "";
 							}
 						} catch (NullPointerException e) {
@@ -476,8 +482,8 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 
 				}
 
-				if (children.item(i).getNodeName() == "#text")
-					value = children.item(i).getNodeValue();
+				if (child.getNodeName() == "#text")
+					value = child.getNodeValue();
 			}
 
 			return value;
@@ -568,13 +574,28 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 		 */
 		setXmlRoot();
 		firstElement = true;
+		nbLinesWritten = 0;
 		/* marshall once for title */
 
 		if (allowCleanTree)
 			lineXsdNode.clean();
 
+		if (singlePass) {
+			writeSinglePass(out);
+			return;
+		}
+
+		if (streaming) {
+			writeStreaming(out);
+			return;
+		}
+
+		if (nbThreads > 1) {
+			writeParallel(out);
+			return;
+		}
+
 		out.write(getTitle(lineXsdNode) + "\n");
-		out.flush();
 
 		firstElement = true;
 		/* Marshal each element */
@@ -582,52 +603,459 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 			firstElement = true;
 			writeNode(lineXsdNode, (Element) lineElements.get(i), out, false);
 			out.write("\n");
+			linesWritten(1);
+		}
+		out.flush();
+	}
+
+	/**
+	 * keep the number of lines written and inform the listener
+	 */
+	private void linesWritten(int nbLines) {
+		nbLinesWritten += nbLines;
+		if (progressListener != null)
+			progressListener.linesWritten(nbLinesWritten);
+	}
+
+	/**
+	 * create the flat file with several threads. The lines are written by
+	 * groups in memory, each by one thread, then copied in the flat file in
+	 * the order of the document.
+	 * 
+	 * @param out
+	 *            the <code>writer</code> where to print the file
+	 * @throws IOException
+	 */
+	private void writeParallel(Writer out) throws IOException {
+		/*
+		 * the amounts of elements are computed before, the threads only read
+		 * the tree and the document
+		 */
+		ArrayList<XsdNode> countedNodes = new ArrayList<XsdNode>();
+		getCountedNodes(lineXsdNode, countedNodes);
+		for (XsdNode xsdNode : countedNodes)
+			getMaxCount(xsdNode);
+
+		firstElement = true;
+		out.write(getTitle(lineXsdNode) + "\n");
+
+		ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+		try {
+			LinkedList<Future<String>> tasks = new LinkedList<Future<String>>();
+			for (int i = 0; i < lineElements.size(); i += LINES_BY_TASK) {
+				final int first = i;
+				final int last = Math.min(i + LINES_BY_TASK, lineElements
+						.size());
+				tasks.add(executor.submit(new Callable<String>() {
+					public String call() throws IOException {
+						LineWriter lines = new LineWriter();
+						for (int j = first; j < last; j++) {
+							lines.firstElement = true;
+							writeNode(lineXsdNode, lineElements.get(j), lines,
+									false);
+							lines.write("\n");
+						}
+						return lines.toString();
+					}
+				}));
+				/* keep a limited amount of lines in memory */
+				if (tasks.size() >= 4 * nbThreads) {
+					out.write(getLines(tasks.removeFirst()));
+					linesWritten(LINES_BY_TASK);
+				}
+			}
+			while (false == tasks.isEmpty()) {
+				out.write(getLines(tasks.removeFirst()));
+				linesWritten(Math.min(LINES_BY_TASK, lineElements.size()
+						- nbLinesWritten));
+			}
 			out.flush();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String getLines(Future<String> task) throws IOException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			IOException ioe = new IOException("interrupted");
+			ioe.initCause(e);
+			throw ioe;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			IOException ioe = new IOException(e.getCause().getMessage());
+			ioe.initCause(e.getCause());
+			throw ioe;
+		}
+	}
+
+	/**
+	 * lines written by a thread, with its own state
+	 */
+	private static class LineWriter extends Writer {
+		private StringBuilder buffer = new StringBuilder();
+
+		/**
+		 * true if the next column is the first of the line
+		 */
+		boolean firstElement = true;
+
+		public void write(char[] cbuf, int off, int len) {
+			buffer.append(cbuf, off, len);
+		}
+
+		public void write(String str) {
+			buffer.append(str);
+		}
+
+		public void flush() {
+		}
+
+		public void close() {
+		}
+
+		public String toString() {
+			return buffer.toString();
 		}
 	}
 
+	/**
+	 * create the flat file reading the document as a stream. The document is
+	 * read twice: first to get the maximum amount of each element in a line,
+	 * that gives the columns, then to write the lines.
+	 * 
+	 * @param out
+	 *            the <code>writer</code> where to print the file
+	 * @throws IOException
+	 */
+	private void writeStreaming(final Writer out) throws IOException {
+		buildKeyRefMap();
+		final ArrayList<XsdNode> countedNodes = new ArrayList<XsdNode>();
+		countedNodes.add(lineXsdNode);
+		getCountedNodes(lineXsdNode, countedNodes);
+		DocumentStreamer streamer = createStreamer(countedNodes);
+
+		/* get the maximum counts */
+		final HashMap<XsdNode, Integer> counts = new HashMap<XsdNode, Integer>();
+		references.removeElements();
+		curElementsCount = streamer.stream(documentURL, references,
+				new DocumentStreamer.RecordHandler() {
+					public void handleRecord(Element record) {
+						for (XsdNode xsdNode : countedNodes) {
+							int count = getRecordMaxCount(record, xsdNode);
+							Integer max = counts.get(xsdNode);
+							if (max == null || count > max.intValue())
+								counts.put(xsdNode, new Integer(count));
+						}
+					}
+				});
+		log.debug(curElementsCount + " elements found for selection.");
+
+		setMaxCounts(countedNodes, counts);
+
+		firstElement = true;
+		out.write(getTitle(lineXsdNode) + "\n");
+
+		/* Marshal each element */
+		references.removeElements();
+		streamer.stream(documentURL, references,
+				new DocumentStreamer.RecordHandler() {
+					public void handleRecord(Element record) throws IOException {
+						firstElement = true;
+						writeNode(lineXsdNode, record, out, false);
+						out.write("\n");
+						linesWritten(1);
+					}
+				});
+		out.flush();
+	}
+
+	/**
+	 * create the flat file reading the document only once. The lines are
+	 * written in a temporary file while the maximum amount of each element is
+	 * computed, then copied in the flat file with the title and the empty
+	 * columns.
+	 * 
+	 * @param out
+	 *            the <code>writer</code> where to print the file
+	 * @throws IOException
+	 */
+	private void writeSinglePass(Writer out) throws IOException {
+		final ArrayList<XsdNode> countedNodes = new ArrayList<XsdNode>();
+		countedNodes.add(lineXsdNode);
+		getCountedNodes(lineXsdNode, countedNodes);
+		spilledNodeIndexes = new HashMap<XsdNode, Integer>();
+		for (int i = 0; i < countedNodes.size(); i++)
+			spilledNodeIndexes.put(countedNodes.get(i), new Integer(i));
+
+		final HashMap<XsdNode, Integer> counts = new HashMap<XsdNode, Integer>();
+		SpilledRows rows = new SpilledRows();
+		spilledRows = rows;
+		try {
+			if (streaming) {
+				buildKeyRefMap();
+				DocumentStreamer streamer = createStreamer(countedNodes);
+				references.removeElements();
+				curElementsCount = streamer.stream(documentURL, references,
+						new DocumentStreamer.RecordHandler() {
+							public void handleRecord(Element record)
+									throws IOException {
+								spillRecord(record, countedNodes, counts);
+							}
+						});
+			} else {
+				for (Node lineElement : lineElements)
+					spillRecord(lineElement, countedNodes, counts);
+			}
+			log.debug(rows.getNbRows() + " lines written in temporary file.");
+			spilledRows = null;
+
+			setMaxCounts(countedNodes, counts);
+			HashMap<XsdNode, Integer> columnCounts = new HashMap<XsdNode, Integer>();
+
+			firstElement = true;
+			out.write(getTitle(lineXsdNode) + "\n");
+
+			rows.rewind();
+			for (int i = 0; i < rows.getNbRows(); i++) {
+				firstElement = true;
+				byte type;
+				while ((type = rows.readType()) != SpilledRows.END_OF_ROW) {
+					if (type == SpilledRows.VALUE) {
+						writeValue(rows.readValue(), out);
+						continue;
+					}
+					int[] padding = rows.readPadding();
+					XsdNode xsdNode = countedNodes.get(padding[0]);
+					int nbColumns = (getMaxCount(xsdNode) - padding[1])
+							* getColumnCount(xsdNode, columnCounts);
+					for (int j = 0; j < nbColumns; j++)
+						writeValue("", out);
+				}
+				out.write("\n");
+				linesWritten(1);
+			}
+			out.flush();
+		} finally {
+			spilledRows = null;
+			spilledNodeIndexes = null;
+			rows.delete();
+		}
+	}
+
+	/**
+	 * write a line in the temporary file and keep the maximum amount of each
+	 * element
+	 */
+	private void spillRecord(Node record, ArrayList<XsdNode> countedNodes,
+			HashMap<XsdNode, Integer> counts) throws IOException {
+		for (XsdNode xsdNode : countedNodes) {
+			int count = getRecordMaxCount(record, xsdNode);
+			Integer max = counts.get(xsdNode);
+			if (max == null || count > max.intValue())
+				counts.put(xsdNode, new Integer(count));
+		}
+		firstElement = true;
+		writeNode(lineXsdNode, record, null, false);
+		spilledRows.endRow();
+	}
+
+	/**
+	 * keep the maximum amount of each element found in the lines
+	 */
+	private void setMaxCounts(ArrayList<XsdNode> countedNodes,
+			HashMap<XsdNode, Integer> counts) {
+		maxCounts = new HashMap<XsdNode, Integer>();
+		for (XsdNode xsdNode : countedNodes) {
+			Integer max = counts.get(xsdNode);
+			maxCounts.put(xsdNode, new Integer(adjustMaxCount(xsdNode,
+					max == null ? 0 : max.intValue())));
+		}
+	}
+
+	/**
+	 * get the amount of columns written for an element of a node, i.e. the
+	 * amount of empty columns to write if the element is missing
+	 */
+	private int getColumnCount(XsdNode xsdNode,
+			HashMap<XsdNode, Integer> columnCounts) {
+		Integer count = columnCounts.get(xsdNode);
+		if (count != null)
+			return count.intValue();
+
+		int nbColumns = 0;
+		if (xsdNode.isUsed()) {
+			if (selections.contains(xsdNode))
+				nbColumns++;
+			Enumeration<XsdNode> children = xsdNode.children();
+			while (children.hasMoreElements()) {
+				XsdNode child = children.nextElement();
+				if (false == child.isUsed())
+					continue;
+				switch (((Annotated) child.getUserObject()).getStructureType()) {
+				case Structure.ELEMENT:
+					nbColumns += getMaxCount(child)
+							* getColumnCount(child, columnCounts);
+					break;
+				case Structure.ATTRIBUTE:
+					nbColumns++;
+					break;
+				}
+			}
+		}
+		columnCounts.put(xsdNode, new Integer(nbColumns));
+		return nbColumns;
+	}
+
+	/**
+	 * write a column of the flat file, or in the temporary file in single pass
+	 * mode
+	 */
+	private void writeValue(String value, Writer out) throws IOException {
+		if (spilledRows != null) {
+			spilledRows.writeValue(value);
+			return;
+		}
+		if (out instanceof LineWriter) {
+			LineWriter lines = (LineWriter) out;
+			if (lines.firstElement)
+				lines.firstElement = false;
+			else
+				lines.write(separator);
+			lines.write(value);
+			return;
+		}
+		if (firstElement)
+			firstElement = false;
+		else
+			out.write(separator);
+		out.write(value);
+	}
+
+	/**
+	 * get the used elements under a node, for which the maximum count is
+	 * needed to write the flat file
+	 */
+	private void getCountedNodes(XsdNode xsdNode, ArrayList<XsdNode> nodes) {
+		Enumeration<XsdNode> children = xsdNode.children();
+		while (children.hasMoreElements()) {
+			XsdNode child = children.nextElement();
+			if (child.isUsed()
+					&& ((Annotated) child.getUserObject()).getStructureType() == Structure.ELEMENT) {
+				nodes.add(child);
+				getCountedNodes(child, nodes);
+			}
+		}
+	}
+
+	/**
+	 * create the streamer for the current line node. Only the elements
+	 * referred by a key and used in the flat file are kept while reading.
+	 */
+	private DocumentStreamer createStreamer(ArrayList<XsdNode> countedNodes) {
+		TreeNode[] path = lineXsdNode.getPath();
+		String[] names = new String[path.length];
+		for (int i = 0; i < path.length; i++)
+			names[i] = path[i].toString();
+		DocumentStreamer streamer = new DocumentStreamer(names);
+
+		HashSet<String> referredKeys = new HashSet<String>();
+		for (SchemaKey keyRef : keyRefs)
+			referredKeys.add(keyRef.getRefer());
+		HashSet<String> usedNames = new HashSet<String>();
+		for (XsdNode xsdNode : countedNodes) {
+			if (xsdNode != lineXsdNode)
+				usedNames.add(xsdNode.toString());
+		}
+
+		String recordPath = names[0];
+		for (int i = 1; i < names.length; i++)
+			recordPath += "/" + names[i];
+
+		for (SchemaKey key : keyz) {
+			String selectorPath = key.getSelectorPath();
+			String target = selectorPath.substring(selectorPath
+					.lastIndexOf('/') + 1);
+			if (false == referredKeys.contains(key.getName())
+					|| false == usedNames.contains(target))
+				continue;
+			/*
+			 * elements referred inside a record are found in the record
+			 * itself, they would otherwise be kept until the end of the key
+			 * scope
+			 */
+			if (selectorPath.startsWith(recordPath + "/")
+					&& false == (key.getPath().equals(recordPath) || key
+							.getPath().startsWith(recordPath + "/")))
+				continue;
+			log.debug("keep elements referred by " + key);
+			streamer.addKey(key.getName(), key.getPath(), selectorPath);
+		}
+		return streamer;
+	}
+
 	/**
 	 * get the maximum amount of element of a type as child of another type of
 	 * element in the XML document. It is used to know how many columns have to
 	 * be created in the flat file, as even empty ones have to be printed.
 	 */
 	public int getMaxCount(XsdNode xsdNode) {
-		XsdNode originalNode = xsdNode;
-		/* if no document loaded */
-		if (lineElements == null) {
-			return 0;
-		}
 		/* max count already computed */
 		if (maxCounts.containsKey(xsdNode)) {
 			return maxCounts.get(xsdNode).intValue();
 		}
+		/* if no document loaded */
+		if (lineElements == null) {
+			return 0;
+		}
 
 		int count = 0;
 		int max = 0;
 
+		for (Node lineElement : lineElements) {
+			count = getRecordMaxCount(lineElement, xsdNode);
+			if (count > max)
+				max = count;
+		}
+
+		max = adjustMaxCount(xsdNode, max);
+
+		/* keep the result */
+		maxCounts.put(xsdNode, new Integer(max));
+
+		return max;
+	}
+
+	/**
+	 * get the maximum amount of element of a type in the element associated
+	 * to a line
+	 */
+	private int getRecordMaxCount(Node lineElement, XsdNode xsdNode) {
 		/** for attributes get number of parent element */
 		if (((Annotated) xsdNode.getUserObject()).getStructureType() == Structure.ATTRIBUTE) {
 			xsdNode = (XsdNode) xsdNode.getParent();
 		}
+		return getMaxCount(lineElement, lineXsdNode, xsdNode, xsdNode
+				.pathFromAncestorEnumeration(lineXsdNode));
+	}
 
-		for (Node lineElement : lineElements) {
-			count = getMaxCount(lineElement, lineXsdNode, xsdNode, xsdNode
-					.pathFromAncestorEnumeration(lineXsdNode));
-			if (count > max)
-				max = count;
+	/**
+	 * the fields are kept even if no element have been found
+	 */
+	private int adjustMaxCount(XsdNode xsdNode, int max) {
+		if (((Annotated) xsdNode.getUserObject()).getStructureType() == Structure.ATTRIBUTE) {
+			xsdNode = (XsdNode) xsdNode.getParent();
 		}
-
-		/* the fields are kept even if no element have been found */
 		if (max < xsdNode.min) {
 			max = xsdNode.min;
 		}
 		if (max == 0) {
 			max = 1;
 		}
-
-		/* keep the result */
-		maxCounts.put(originalNode, new Integer(max));
-
 		return max;
 	}
 
@@ -648,12 +1076,13 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	public int getMaxCount(Node element, XsdNode parent, XsdNode target,
 			Enumeration<XsdNode> path) {
 		if (target == parent) {
-			if (elementFilters.containsKey(parent)) {
+			if (compiledFilters.containsKey(parent)) {
 				String value = ((Element) element).getAttributeNode(
 						target.toString()).getNodeValue();
 				/** TODO: done for managing filter */
-				if (false == value.matches(elementFilters.get(target))) {
-					log.debug(target.getName() + " filtered");
+				if (false == compiledFilters.get(target).matches(value)) {
+					if (log.isDebugEnabled())
+						log.debug(target.getName() + " filtered");
 					return 0;
 				}
 			}
@@ -684,13 +1113,13 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 				while (xsdChildrens.hasMoreElements()) {
 					XsdNode xsdChild = xsdChildrens.nextElement();
 
-					if (elementFilters.containsKey(xsdChild)) {
+					if (compiledFilters.containsKey(xsdChild)) {
 						try {
 							String value = ((org.apache.xerces.dom.DeferredTextImpl) xmlChild)
 									.getNodeValue();
 							/** TODO: done for managing filter */
-							if (false == value.matches(elementFilters
-									.get(xmlChild))) {
+							if (false == compiledFilters.get(xmlChild).matches(
+									value)) {
 								return 0;
 							}
 						} catch (Exception e) {
@@ -798,15 +1227,11 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 				XsdNode child = children.nextElement();
 
 				if (((Annotated) child.getUserObject()).getStructureType() == Structure.ATTRIBUTE) {
-					if (elementFilters.containsKey(child)) {
+					if (compiledFilters.containsKey(child)) {
 						String value = ((Element) xmlElement).getAttributeNode(
 								child.toString()).getNodeValue();
 						/** TODO: done for managing filter */
-						Pattern p = Pattern.compile(elementFilters.get(child));
-						Matcher m = p.matcher(value);
-						boolean match = m.matches();
-
-						if (false == match) {
+						if (false == compiledFilters.get(child).matches(value)) {
 							return false;
 						}
 					}
@@ -823,22 +1248,14 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 				String value = getElementValue((Element) xmlElement);
 				/** TODO: done for managing filter */
 				/** if empty marshaling, we do not care about filters */
-				if (elementFilters.containsKey(xsdNode) && false == empty
-						&& elementFilters.get(xsdNode) != null
-						&& elementFilters.get(xsdNode).length() > 0) {
-					if (value.matches(elementFilters.get(xsdNode))) {
-						if (firstElement)
-							firstElement = false;
-						else
-							out.write(separator);
-						out.write(getElementValue((Element) xmlElement));
+				ValueFilter filter = compiledFilters.get(xsdNode);
+				if (filter != null && false == empty
+						&& filter.getRegexp().length() > 0) {
+					if (filter.matches(value)) {
+						writeValue(value, out);
 					}
 				} else {
-					if (firstElement)
-						firstElement = false;
-					else
-						out.write(separator);
-					out.write(getElementValue((Element) xmlElement));
+					writeValue(value, out);
 				}
 			}
 		}
@@ -856,24 +1273,26 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 					int nbElementFound = 0;
 					/* create a NodeList with all childs with tagname */
 					if (xmlElement != null) {
-						NodeList allElements = xmlElement.getChildNodes();
 						ArrayList<Node> elements = new ArrayList<Node>();
 						/**
 						 * number of element found: could be lower than
 						 * elements's length due to filters
 						 */
-						for (int i = 0; i < allElements.getLength(); i++) {
-							if (allElements.item(i).getNodeName().compareTo(
+						for (Node xmlChild = xmlElement.getFirstChild(); xmlChild != null; xmlChild = xmlChild
+								.getNextSibling()) {
+							if (xmlChild.getNodeName().compareTo(
 									child.toString()) == 0) {
-								elements.add(allElements.item(i));
+								elements.add(xmlChild);
 							}
 
 							/* get refence by xs:key */
-							else if (isXsRefPath(allElements.item(i))) {
+							else if (isXsRefPath(xmlChild)) {
 								Element ref = // document.
-								getElementByKeyRef(allElements.item(i));
+								getElementByKeyRef(xmlChild);
 
-								log.debug("ref: "+allElements.item(i).getNodeName()+": "+allElements.item(i).getChildNodes().item(0).getNodeValue());
+								if (log.isDebugEnabled())
+									log.debug("ref: " + xmlChild.getNodeName() + ": "
+											+ xmlChild.getFirstChild().getNodeValue());
 								if (ref != null
 										&& ref.getNodeName().compareTo(
 												child.toString()) == 0) {
@@ -882,10 +1301,9 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 							}
 
 							/* get references by XML id */
-							else if (isRefType(allElements.item(i)
-									.getNodeName())) {
+							else if (isRefType(xmlChild.getNodeName())) {
 								Element ref = // document.
-								getElementById(((Element) allElements.item(i))
+								getElementById(((Element) xmlChild)
 										.getAttribute(refAttribute));
 								if (ref != null
 										&& ref.getNodeName().compareTo(
@@ -903,6 +1321,12 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 								nbElementFound++;
 						}
 					}
+					if (spilledRows != null) {
+						/* the empty columns are written with the flat file */
+						spilledRows.writePadding(spilledNodeIndexes.get(child)
+								.intValue(), nbElementFound);
+						break;
+					}
 					int maxCount = getMaxCount(child);
 					while (nbElementFound < maxCount) {
 						writeNode(child, null, out, true);
@@ -910,19 +1334,18 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 					}
 					break;
 				case Structure.ATTRIBUTE:
-					if (firstElement)
-						firstElement = false;
-					else
-						out.write(separator);
-
+					String attributeValue = "";
 					if (xmlElement != null) {
 						try {
-						out.write(((Element) xmlElement).getAttributeNode(
-								child.toString()).getNodeValue());
+						attributeValue = ((Element) xmlElement).getAttributeNode(
+								child.toString()).getNodeValue();
 						} catch (Exception e) {
-							log.debug(child.getName()+"/"+xmlElement.getNodeName(), e);
+							if (log.isDebugEnabled())
+								log.debug(child.getName() + "/"
+										+ xmlElement.getNodeName(), e);
 						}
 					}
+					writeValue(attributeValue, out);
 					break;
 				default:
 					log.debug("[PSI makers: flattener] ERROR: the node is neither an attribute nor an element");
@@ -1034,8 +1457,11 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 
 	public void addFilter(XsdNode node, String regexp) {
 		elementFilters.remove(node);
-		if (regexp != null && !regexp.trim().equals(""))
+		compiledFilters.remove(node);
+		if (regexp != null && !regexp.trim().equals("")) {
 			elementFilters.put(node, regexp.trim());
+			compiledFilters.put(node, ValueFilter.compile(regexp.trim()));
+		}
 	}
 
 	public void selectNode(XsdNode xsdNode) {
@@ -1127,12 +1553,12 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 				XsdNode child = children.nextElement();
 
 				if (((Annotated) child.getUserObject()).getStructureType() == Structure.ATTRIBUTE) {
-					if (elementFilters.containsKey(child)) {
+					if (compiledFilters.containsKey(child)) {
 						// try {
 						String value = ((Element) element).getAttributeNode(
 								child.toString()).getNodeValue();
 						/** TODO: done for managing filter */
-						if (!value.matches(elementFilters.get(child))) {
+						if (!compiledFilters.get(child).matches(value)) {
 							filtered = true;
 						}
 					}
@@ -1257,9 +1683,15 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 		if (mapping.getLineNode() != null)
 			this.setLineNode(getNodeByPath(mapping.getLineNode()));
 		
-		if (documentURL != null)
+		if (documentURL != null && false == streaming)
 			this.loadDocument(documentURL);
 
+		if (documentURL != null && streaming && validateDocument) {
+			/* the document is validated as a stream, before being read */
+			SchemaValidator.get(schemaURL).validate(documentURL,
+					xmlErrorHandler);
+		}
+
 		this.setSeparator(mapping.separator);
 
 		for (i = 0; i < mapping.selections.size(); i++) {
@@ -1277,6 +1709,8 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 			String field = (String) mapping.elementFilters.get(path);
 			XsdNode node = getNodeByPath(path);
 			this.elementFilters.put(node, field);
+			if (field != null)
+				compiledFilters.put(node, ValueFilter.compile(field));
 		}
 
 	}
@@ -1384,6 +1818,9 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	 * @return
 	 */
 	private Element getElementById(String id) {
+		/* XML ids are not available when the document is streamed */
+		if (document == null)
+			return null;
 		Element ref = document.getElementById(id);
 		return ref;
 	}
@@ -1395,9 +1832,6 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 	 * @return
 	 */
 	private Element getElementByKeyRef(Node node) {
-		Element ref;
-
-		String refType = getDocumentXpath(node);
 		/* get ref attribute */
 		String refId = node.getFirstChild().getNodeValue();
 		if (refId == null || refId.equals("")) {
@@ -1409,42 +1843,15 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 			}
 		}
 
-		String referedType = refType2referedType.get(refType);
-
-		ref = (Element) xsKeyNodes.get(referedType + "#" + refId);
-		return ref;
-	}
-
-	private String getXpath(Node node) {
-		String xpath = "";
-		if (node.getParentNode() != null) {
-			xpath = getXpath(node.getParentNode());
-		}
-		String name = getName(node);
-
-		if (name != null && xpath != null && xpath.equals("") == false)
-			xpath += "/";
-
-		if (name != null)
-			xpath += name;
-		return xpath;
+		return references.getReferredElement(node, refId);
 	}
 
 	/**
-	 * the name of an element in the schema is contained in the attribute 'name'
-	 * 
-	 * @param node
-	 * @return
+	 * retrun true if an element of this type is a reference to another
+	 * element, according to the key/keyRef xs specification
 	 */
-	private String getName(Node node) {
-		if (node.hasAttributes() == false)
-			return null;
-
-		for (int i = 0; i < node.getAttributes().getLength(); i++) {
-			if (node.getAttributes().item(i).getNodeName().equals("name"))
-				return node.getAttributes().item(i).getNodeValue();
-		}
-		return null;
+	public boolean isXsRefPath(Node node) {
+		return references.isReference(node);
 	}
 
 	// private void getKeys(Node node) {
@@ -1509,6 +1916,43 @@ public class XsdTreeStructImpl extends AbstractXsdTreeStruct {
 		this.lineElements = lineElements;
 	}
 
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public ProgressListener getProgressListener() {
+		return progressListener;
+	}
+
+	public void setProgressListener(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	public int getNbThreads() {
+		return nbThreads;
+	}
+
+	/**
+	 * @param nbThreads
+	 *            number of threads writing the lines. The document has to be
+	 *            loaded after.
+	 */
+	public void setNbThreads(int nbThreads) {
+		this.nbThreads = nbThreads;
+	}
+
+	public boolean isSinglePass() {
+		return singlePass;
+	}
+
+	public void setSinglePass(boolean singlePass) {
+		this.singlePass = singlePass;
+	}
+
 	public void setValidateDocument(boolean validateDocument) {
 		XsdTreeStructImpl.validateDocument = validateDocument;
 	}
@@ -0,0 +1,110 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker;
+
+import java.io.File;
+
+import org.apache.commons.cli.BasicParser;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import psidev.psi.mi.filemakers.xmlMaker.structure.Dictionary;
+import psidev.psi.mi.filemakers.xsd.Utils;
+
+/**
+ *
+ * Executable class that compiles a dictionary in a binary snapshot. The
+ * snapshot can be used by the maker in place of the dictionary file: it is
+ * mapped in memory instead of being read and parsed at each start.
+ *
+ * Available parameters: -dictionary: the dictionary file -separator: the
+ * separator of the words on each line -caseSensitive: keep the case of the
+ * words -o: name of the snapshot to write
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class DictionaryCompiler {
+
+	private static final Log log = LogFactory.getLog(DictionaryCompiler.class);
+
+	private static void displayUsage(Options options) {
+		HelpFormatter formatter = new HelpFormatter();
+		if (System.getProperty("os.name").toLowerCase().indexOf("windows") > -1) {
+			formatter.printHelp("bin/dictionarycompiler.bat ", options);
+		} else {
+			formatter.printHelp("sh bin/dictionarycompiler ", options);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Options options = new Options();
+
+		Option helpOpt = new Option("help", "print this message.");
+		options.addOption(helpOpt);
+
+		Option option = new Option("dictionary", true, "the dictionary file");
+		option.setRequired(true);
+		options.addOption(option);
+
+		option = new Option("separator", true,
+				"the separator of the words on each line");
+		option.setRequired(true);
+		options.addOption(option);
+
+		option = new Option("caseSensitive",
+				"keep the case of the words (not case sensitive by default)");
+		option.setRequired(false);
+		options.addOption(option);
+
+		option = new Option("o", true, "the snapshot file");
+		option.setRequired(true);
+		options.addOption(option);
+
+		CommandLineParser parser = new BasicParser();
+		CommandLine line = null;
+		try {
+			line = parser.parse(options, args, true);
+		} catch (ParseException exp) {
+			displayUsage(options);
+			System.exit(1);
+		}
+
+		if (line.hasOption("help")) {
+			displayUsage(options);
+			System.exit(0);
+		}
+
+		String dictionaryFileName = line.getOptionValue("dictionary");
+		String separator = line.getOptionValue("separator");
+		String snapshotFileName = line.getOptionValue("o");
+
+		Dictionary dictionary = new Dictionary(Utils
+				.absolutizeURL(dictionaryFileName), separator, line
+				.hasOption("caseSensitive"), true);
+		dictionary.saveSnapshot(new File(snapshotFileName));
+		log.info("dictionary " + dictionaryFileName + " compiled in "
+				+ snapshotFileName);
+	}
+
+}
@@ -1,98 +1,152 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlMaker.gui;
-
-
-import java.awt.BorderLayout;
-import java.util.Observable;
-import java.util.Observer;
-
-import javax.swing.JFrame;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
-import javax.swing.JTextField;
-
-import psidev.psi.mi.filemakers.xmlMaker.structure.MarshallingObservable;
-import psidev.psi.mi.filemakers.xsd.Utils;
-
-
-/**
- * This class can observe a tree and display information about the processed
- * marshalling
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- */
-public class MarshallingObserver extends JFrame implements Observer, Runnable {
-	JTextArea editorPane = new JTextArea();
-
-	JTextField linePane = new JTextField();
-
-	private MarshallingObservable observable;
-
-	public MarshallingObserver() {
-		super("make XML document");
-		setSize(400, 300);
-		JScrollPane scrollPane = new JScrollPane(editorPane);
-		scrollPane
-				.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-		editorPane.setText("Start marshalling");
-		editorPane.setEditable(false);
-		editorPane.setLineWrap(true);
-		getContentPane().setLayout(new BorderLayout());
-		getContentPane().add(scrollPane, BorderLayout.CENTER);
-		getContentPane().add(linePane, BorderLayout.SOUTH);
-		setVisible(true);
-	}
-
-	public void update(Observable arg0, Object arg1) {
-		linePane.setText(Utils.getFileName(((MarshallingObservable) arg0)
-				.getCurrentFlatFile())
-				+ ", line "
-				+ new Integer(((MarshallingObservable) arg0).getCurrentLine())
-						.toString());
-		if (arg1 == ((MarshallingObservable) arg0).getMessage()) {
-			editorPane.append("\n"
-					+ ((MarshallingObservable) arg0).getMessage());
-		}
-		if (arg1 == ((MarshallingObservable) arg0).getElement()) {
-			editorPane.append("\n");
-			for (int i = 0; i < ((MarshallingObservable) arg0).getIndentation(); i++) {
-				editorPane.append(" ");
-			}
-			editorPane.append(((MarshallingObservable) arg0).getElement()
-					+ ": ");
-			editorPane.append(Utils.getFileName(((MarshallingObservable) arg0)
-					.getCurrentFlatFile()));
-		}
-		this.update(this.getGraphics());
-	}
-
-	/**
-	 * @param observable
-	 *            The observable to set.
-	 */
-	public void setObservable(MarshallingObservable observable) {
-		this.observable = observable;
-	}
-
-	public void start() {
-		(new Thread(this)).start();
-	}
-
-	public void run() {
-		(new Thread(this)).start();
-	}
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.gui;
+
+
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Observable;
+import java.util.Observer;
+
+import javax.swing.JFrame;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import psidev.psi.mi.filemakers.xmlMaker.structure.MarshallingObservable;
+import psidev.psi.mi.filemakers.xmlMaker.structure.MarshallingProgress;
+import psidev.psi.mi.filemakers.xsd.Utils;
+
+
+/**
+ * This class can observe a tree and display information about the processed
+ * marshalling. The messages are displayed when they are sent, the progress
+ * of the marshalling is read a few times per second.
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class MarshallingObserver extends JFrame implements Observer, Runnable {
+	JTextArea editorPane = new JTextArea();
+
+	JTextField linePane = new JTextField();
+
+	private MarshallingObservable observable;
+
+	/**
+	 * delay between two displays of the progress, in milliseconds
+	 */
+	public final static int REFRESH_DELAY = 100;
+
+	private MarshallingProgress progress;
+
+	private Timer refreshTimer = new Timer(REFRESH_DELAY, new ActionListener() {
+		public void actionPerformed(ActionEvent e) {
+			displayProgress();
+		}
+	});
+
+	public MarshallingObserver() {
+		super("make XML document");
+		setSize(400, 300);
+		JScrollPane scrollPane = new JScrollPane(editorPane);
+		scrollPane
+				.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+		editorPane.setText("Start marshalling");
+		editorPane.setEditable(false);
+		editorPane.setLineWrap(true);
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(scrollPane, BorderLayout.CENTER);
+		getContentPane().add(linePane, BorderLayout.SOUTH);
+		setVisible(true);
+	}
+
+	public void update(Observable arg0, Object arg1) {
+		final MarshallingObservable marshallingObservable = (MarshallingObservable) arg0;
+		final String text;
+		if (arg1 == marshallingObservable.getMessage()) {
+			text = "\n" + marshallingObservable.getMessage();
+		} else if (arg1 == marshallingObservable.getElement()) {
+			StringBuffer element = new StringBuffer("\n");
+			for (int i = 0; i < marshallingObservable.getIndentation(); i++) {
+				element.append(" ");
+			}
+			element.append(marshallingObservable.getElement() + ": ");
+			element.append(Utils.getFileName(marshallingObservable
+					.getCurrentFlatFile()));
+			text = element.toString();
+		} else {
+			return;
+		}
+		final boolean finished = progress != null
+				&& false == progress.isRunning();
+		/* the marshalling thread does not wait for the display */
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				editorPane.append(text);
+				if (finished)
+					displayTotals();
+			}
+		});
+	}
+
+	/**
+	 * display the progress of the flat file being marshalled, called on the
+	 * event dispatch thread by the timer
+	 */
+	private void displayProgress() {
+		String text = progress.toString();
+		if (text.length() > 0)
+			linePane.setText(text);
+	}
+
+	/**
+	 * display the progress of each flat file once the marshalling is done
+	 */
+	private void displayTotals() {
+		refreshTimer.stop();
+		linePane.setText("");
+		for (int i = 0; i < progress.getNbFlatFiles(); i++)
+			editorPane.append("\n" + progress.toString(i));
+	}
+
+	/**
+	 * @param observable
+	 *            The observable to set.
+	 */
+	public void setObservable(MarshallingObservable observable) {
+		this.observable = observable;
+	}
+
+	/**
+	 * @param progress
+	 *            the progress to display until the end of the marshalling
+	 */
+	public void setProgress(MarshallingProgress progress) {
+		this.progress = progress;
+		refreshTimer.start();
+	}
+
+	public void start() {
+		(new Thread(this)).start();
+	}
+
+	public void run() {
+		(new Thread(this)).start();
+	}
 }
\ No newline at end of file
@@ -1,63 +1,80 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlMaker.mapping;
-
-import javax.xml.bind.annotation.XmlTransient;
-
-/**
- * 
- * The bean that can keep the mapping information about the dictionaries.
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- *  
- */
-public class DictionaryMapping {
-
-	@XmlTransient
-	public String fileURL;
-
-	@XmlTransient
-	public boolean caseSensitive;
-
-	@XmlTransient
-	public String separator;
-
-	
-	public boolean isCaseSensitive() {
-		return caseSensitive;
-	}
-
-	public void setCaseSensitive(boolean caseSensitive) {
-		this.caseSensitive = caseSensitive;
-	}
-
-	public String getSeparator() {
-		return separator;
-	}
-
-	public void setSeparator(String separator) {
-		this.separator = separator;
-	}
-
-	public String getFileURL() {
-		return fileURL;
-	}
-
-	public void setFileURL(String fileURI) {
-		this.fileURL = fileURI;
-	}
-
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.mapping;
+
+import javax.xml.bind.annotation.XmlTransient;
+
+/**
+ * 
+ * The bean that can keep the mapping information about the dictionaries.
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *  
+ */
+public class DictionaryMapping {
+
+	/**
+	 * the dictionary file, or a snapshot compiled by DictionaryCompiler
+	 */
+	@XmlTransient
+	public String fileURL;
+
+	@XmlTransient
+	public boolean caseSensitive;
+
+	@XmlTransient
+	public String separator;
+
+	/**
+	 * true to keep the dictionary in a compact store, for big dictionaries
+	 */
+	@XmlTransient
+	public boolean compact = false;
+
+	
+	public boolean isCaseSensitive() {
+		return caseSensitive;
+	}
+
+	public void setCaseSensitive(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+	}
+
+	public boolean isCompact() {
+		return compact;
+	}
+
+	public void setCompact(boolean compact) {
+		this.compact = compact;
+	}
+
+	public String getSeparator() {
+		return separator;
+	}
+
+	public void setSeparator(String separator) {
+		this.separator = separator;
+	}
+
+	public String getFileURL() {
+		return fileURL;
+	}
+
+	public void setFileURL(String fileURI) {
+		this.fileURL = fileURI;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Dictionary kept in a single array of bytes, for big dictionaries. Each
+ * entry (the word and its definitions) is written in UTF-8 at the end of the
+ * array, and found using a hash table with open addressing kept in two
+ * arrays of int.
+ *
+ * The entries are limited to <code>MAX_ENTRIES_LENGTH</code> bytes and the
+ * table to <code>MAX_CAPACITY</code> slots: a bigger dictionary cannot be
+ * kept in this store.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class CompactDictionaryStore extends PackedDictionaryStore {
+
+	/**
+	 * the biggest array of bytes that can be allocated
+	 */
+	public final static int MAX_ENTRIES_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * the biggest power of 2 that can be the length of an array
+	 */
+	public final static int MAX_CAPACITY = 1 << 30;
+
+	private final int maxEntriesLength;
+
+	private final int maxCapacity;
+
+	/**
+	 * hash code of the word in each slot
+	 */
+	private int[] hashes;
+
+	/**
+	 * position of the entry of each slot in the array of bytes, plus one. 0
+	 * if the slot is empty.
+	 */
+	private int[] offsets;
+
+	private int size = 0;
+
+	private byte[] entries;
+
+	private int entriesLength = 0;
+
+	public CompactDictionaryStore() {
+		this(MAX_ENTRIES_LENGTH, MAX_CAPACITY);
+	}
+
+	/**
+	 * @param maxEntriesLength
+	 *            the maximal length of the entries, in bytes
+	 * @param maxCapacity
+	 *            the maximal number of slots of the table, a power of 2
+	 */
+	CompactDictionaryStore(int maxEntriesLength, int maxCapacity) {
+		this.maxEntriesLength = maxEntriesLength;
+		this.maxCapacity = maxCapacity;
+		hashes = new int[Math.min(1024, maxCapacity)];
+		offsets = new int[hashes.length];
+		entries = new byte[Math.min(4096, maxEntriesLength)];
+	}
+
+	protected byte byteAt(int position) {
+		return entries[position];
+	}
+
+	protected int hashAt(int slot) {
+		return hashes[slot];
+	}
+
+	protected int offsetAt(int slot) {
+		return offsets[slot];
+	}
+
+	protected int getCapacity() {
+		return offsets.length;
+	}
+
+	public void put(String value, String[] definitions) {
+		if ((size + 1L) * 4 > offsets.length * 3L) {
+			if (offsets.length >= maxCapacity)
+				throw new IllegalStateException(
+						"dictionary too large for the compact store: more than "
+								+ size + " entries");
+			resize(offsets.length * 2);
+		}
+		int hash = value.hashCode();
+		int slot = find(value, hash);
+		int offset = entriesLength;
+		writeString(value);
+		writeInt(definitions.length);
+		for (int i = 0; i < definitions.length; i++)
+			writeString(definitions[i]);
+		if (offsets[slot] == 0) {
+			size++;
+			hashes[slot] = hash;
+		}
+		/* the previous entry of the word, if any, is not used anymore */
+		offsets[slot] = offset + 1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getMemoryUsage() {
+		return 64 + entries.length + 8L * offsets.length;
+	}
+
+	/**
+	 * @return the number of bytes written by <code>write</code>
+	 */
+	public long getWrittenLength() {
+		return 12 + 8L * offsets.length + entriesLength;
+	}
+
+	/**
+	 * write the table and the entries, as read by MappedDictionaryStore
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(size);
+		out.writeInt(offsets.length);
+		out.writeInt(entriesLength);
+		for (int i = 0; i < hashes.length; i++)
+			out.writeInt(hashes[i]);
+		for (int i = 0; i < offsets.length; i++)
+			out.writeInt(offsets[i]);
+		out.write(entries, 0, entriesLength);
+	}
+
+	private void resize(int capacity) {
+		int[] oldHashes = hashes;
+		int[] oldOffsets = offsets;
+		hashes = new int[capacity];
+		offsets = new int[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldOffsets.length; i++) {
+			if (oldOffsets[i] == 0)
+				continue;
+			int slot = mix(oldHashes[i]) & mask;
+			while (offsets[slot] != 0)
+				slot = (slot + 1) & mask;
+			hashes[slot] = oldHashes[i];
+			offsets[slot] = oldOffsets[i];
+		}
+	}
+
+	private void ensureCapacity(int length) {
+		long minLength = (long) entriesLength + length;
+		if (minLength <= entries.length)
+			return;
+		if (minLength > maxEntriesLength)
+			throw new IllegalStateException(
+					"dictionary too large for the compact store: more than "
+							+ maxEntriesLength + " bytes of entries");
+		long newLength = 2L * entries.length;
+		while (newLength < minLength)
+			newLength *= 2;
+		byte[] newEntries = new byte[(int) Math.min(newLength,
+				maxEntriesLength)];
+		System.arraycopy(entries, 0, newEntries, 0, entriesLength);
+		entries = newEntries;
+	}
+
+	/**
+	 * write a positive int on 1 to 5 bytes
+	 */
+	private void writeInt(int value) {
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0) {
+			entries[entriesLength++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		entries[entriesLength++] = (byte) value;
+	}
+
+	/**
+	 * write the length of the string in bytes, then the string in UTF-8
+	 */
+	private void writeString(String s) {
+		int length = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < 0x80)
+				length++;
+			else if (c < 0x800)
+				length += 2;
+			else
+				length += 3;
+		}
+		writeInt(length);
+		ensureCapacity(length);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				entries[entriesLength++] = (byte) c;
+			} else if (c < 0x800) {
+				entries[entriesLength++] = (byte) (0xC0 | (c >> 6));
+				entries[entriesLength++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				/* surrogates are coded separately */
+				entries[entriesLength++] = (byte) (0xE0 | (c >> 12));
+				entries[entriesLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				entries[entriesLength++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+	}
+}
@@ -1,333 +1,562 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlMaker.structure;
-
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.HashMap;
-
-import psidev.psi.mi.filemakers.xmlMaker.mapping.DictionaryMapping;
-import psidev.psi.mi.filemakers.xsd.Utils;
-
-/**
- * Management of a dictionnary. A dictionnary is readed in a file and associates
- * the first word of each line to a list of definitions, i.e. the list of words
- * following on the same line.
- * 
- * The dictionnary can be read from a flat file, for exemble a tab delimited
- * file , which field separator can be set.
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- */
-public class Dictionary {
-
-	public int index;
-
-	/**
-	 * keep the definitions:the key is the word and the value a list (ArrayList)
-	 * of definitions
-	 */
-	public HashMap<String, ArrayList<String>> dictionnary = new HashMap<String, ArrayList<String>>();
-
-	/**
-	 * indicates if the dictionnary has to take care of the case of the
-	 * characters or not
-	 */
-	public boolean caseSensitive;
-
-	/**
-	 * The name for the controlled vocabulary, i.e. the name of the file on
-	 * which the dictionnary has been loaded.
-	 */
-	public String name;
-
-	public BufferedReader input;
-
-	public URL fileURL;
-
-	/**
-	 * The field separator
-	 */
-	public String separator;
-
-	/**
-	 * The longest list readed on a line. Can be used to have the best overview
-	 * of a value and its available definitions or to choose a definition.
-	 */
-	public String maxDefinitionLine;
-
-	/**
-	 * load a dictionnary
-	 * 
-	 * @param f
-	 *            the file containing the dictionnary
-	 * @param separator
-	 *            the string separating the words
-	 * @throws FileNotFoundException
-	 */
-	public void load(URL url, String separator) throws FileNotFoundException,
-			java.util.regex.PatternSyntaxException, IOException {
-
-		this.fileURL = url;
-		this.input = new BufferedReader(new InputStreamReader(fileURL
-				.openStream()));
-
-		Utils.lastVisitedDirectory = url.getPath();
-		Utils.lastVisitedDictionaryDirectory = url.getPath();
-
-		int maxDefinitionsNumber = 0;
-
-		while (true) {
-			try {
-				String line = input.readLine().trim();
-				String[] values = (line + " ").split(separator);
-				if (values.length > 0) {
-					// make it possible to have empty lines
-
-					String value = values[0].trim();
-					ArrayList<String> definitions = new ArrayList<String>();
-
-					for (int i = 1; i < values.length; i++) {
-						definitions.add(values[i].trim() + " ");
-					}
-
-					if (definitions.size() > maxDefinitionsNumber) {
-						maxDefinitionsNumber = definitions.size();
-						maxDefinitionLine = line;
-					}
-
-					if (!caseSensitive) {
-						dictionnary
-								.put(value.toLowerCase().trim(), definitions);
-					} else {
-						dictionnary.put(value.trim(), definitions);
-					}
-				}
-				name = Utils.relativizeURL(fileURL).getPath();
-				this.separator = separator;
-			} catch (java.util.regex.PatternSyntaxException ex) {
-				/** TODO : manage exception */
-				return;
-			} catch (Exception e) { /* end of file */
-				return;
-			}
-		}
-	}
-
-	/**
-	 * constructor by default. The ditionnary is set as case sensitive
-	 */
-	public Dictionary() {
-		super();
-		caseSensitive = true;
-	}
-
-	/**
-	 * constructor with specification of case sensitivity
-	 * 
-	 * @param caseSensitive
-	 */
-	public Dictionary(boolean caseSensitive) {
-		super();
-		this.caseSensitive = caseSensitive;
-	}
-
-	/**
-	 * create a new instance of Dictionnary with specified case sensitivity and
-	 * load specified file using the separator
-	 * 
-	 * @param f
-	 *            the file to load
-	 * @param separator
-	 *            the separator for words on each line
-	 * @param caseSensitive
-	 * @throws FileNotFoundException
-	 */
-	public Dictionary(URL url, String separator, boolean caseSensitive)
-			throws FileNotFoundException, IOException {
-		this.caseSensitive = caseSensitive;
-		this.fileURL = url;
-		load(fileURL, separator);
-	}
-
-	/**
-	 * get the value associated to this word
-	 * 
-	 * @param value
-	 *            the word
-	 * @param definitionNumber
-	 *            the number of the definition to look for, as a value can have
-	 *            more than one definition, i.e. the postition of the definition
-	 *            on a line.
-	 * @return the definition
-	 */
-	public String getDefinition(String value, int definitionNumber) {
-		try {
-			if (caseSensitive) {
-				return (String) ((ArrayList<String>) dictionnary.get(value))
-						.get(definitionNumber - 1);
-			}
-			/*
-			 * definitionNumber -1 because we do not count the value but only
-			 * the definitions
-			 */
-			else {
-				return (String) ((ArrayList<String>) dictionnary.get(value
-						.toLowerCase())).get(definitionNumber - 1);
-			}
-		} catch (NullPointerException e) {
-			return null;
-		} catch (IndexOutOfBoundsException e2) {
-			return null;
-		}
-	}
-
-	public String[] exampleList() {
-		if (maxDefinitionLine == null) {
-			String value[] = {};
-			return value;
-		}
-		return (maxDefinitionLine).split(separator);
-	}
-
-	public String exampleLine() {
-		if (maxDefinitionLine == null) {
-			return "";
-		}
-		return maxDefinitionLine;
-	}
-
-	/**
-	 * @return the name of the dictionnary
-	 */
-	public String toString() {
-		return name;
-	}
-
-	public String getSeparator() {
-		return separator;
-	}
-
-	public boolean isCaseSensitive() {
-		return caseSensitive;
-	}
-
-	/**
-	 * @return Returns the dictionnary.
-	 */
-	public HashMap<String, ArrayList<String>> getDictionnary() {
-		return dictionnary;
-	}
-
-	/**
-	 * @param dictionnary
-	 *            The dictionnary to set.
-	 */
-	public void setDictionnary(HashMap<String, ArrayList<String>> dictionnary) {
-		this.dictionnary = dictionnary;
-	}
-
-	/**
-	 * @return Returns the index.
-	 */
-	public int getIndex() {
-		return index;
-	}
-
-	/**
-	 * @param index
-	 *            The index to set.
-	 */
-	public void setIndex(int index) {
-		this.index = index;
-	}
-
-	/**
-	 * @return Returns the maxDefinitionLine.
-	 */
-	public String getMaxDefinitionLine() {
-		return maxDefinitionLine;
-	}
-
-	/**
-	 * @param maxDefinitionLine
-	 *            The maxDefinitionLine to set.
-	 * 
-	 */
-	public void setMaxDefinitionLine(String maxDefinitionLine) {
-		this.maxDefinitionLine = maxDefinitionLine;
-	}
-
-	/**
-	 * @return Returns the name.
-	 */
-	public String getName() {
-		return name;
-	}
-
-	/**
-	 * @param name
-	 *            The name to set.
-	 */
-	public void setName(String name) {
-		this.name = name;
-	}
-
-	/**
-	 * @param caseSensitive
-	 *            The caseSensitive to set.
-	 */
-	public void setCaseSensitive(boolean caseSensitive) {
-		this.caseSensitive = caseSensitive;
-	}
-
-	/**
-	 * @param separator
-	 *            The separator to set.
-	 */
-	public void setSeparator(String separator) {
-		this.separator = separator;
-	}
-
-	public DictionaryMapping getMapping() {
-		DictionaryMapping mapping = new DictionaryMapping();
-		if (this.fileURL != null)
-			mapping.setFileURL(Utils.relativizeURL(this.fileURL).getPath());
-		mapping.setCaseSensitive(this.isCaseSensitive());
-		mapping.setSeparator(this.separator);
-		return mapping;
-	}
-
-	/**
-	 * @return Returns the fileURI.
-	 */
-	public URL getFileURL() {
-		return fileURL;
-	}
-
-	/**
-	 * @param fileURI
-	 *            The fileURI to set.
-	 */
-	public void setFileURL(URL fileURI) {
-		this.fileURL = fileURI;
-	}
-
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import psidev.psi.mi.filemakers.xmlMaker.mapping.DictionaryMapping;
+import psidev.psi.mi.filemakers.xsd.Utils;
+
+/**
+ * Management of a dictionnary. A dictionnary is readed in a file and associates
+ * the first word of each line to a list of definitions, i.e. the list of words
+ * following on the same line.
+ * 
+ * The dictionnary can be read from a flat file, for exemble a tab delimited
+ * file , which field separator can be set.
+ * 
+ * A dictionnary can also be compiled in a binary snapshot (see
+ * DictionaryCompiler), which is mapped in memory instead of being read.
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class Dictionary {
+
+	private static final Log log = LogFactory.getLog(Dictionary.class);
+
+	/**
+	 * first bytes of a dictionary snapshot: "XMDS"
+	 */
+	public static final int SNAPSHOT_MAGIC = 0x584D4453;
+
+	public static final int SNAPSHOT_VERSION = 1;
+
+	public int index;
+
+	/**
+	 * keep the definitions:the key is the word and the value a list (ArrayList)
+	 * of definitions. Empty if the dictionary is compact.
+	 */
+	public HashMap<String, ArrayList<String>> dictionnary = new HashMap<String, ArrayList<String>>();
+
+	/**
+	 * if true, the definitions are kept in a CompactDictionaryStore instead
+	 * of the HashMap, which needs much less memory for big dictionaries
+	 */
+	public boolean compact = false;
+
+	/**
+	 * where the definitions are kept
+	 */
+	public DictionaryStore store = new HashMapDictionaryStore(dictionnary);
+
+	/**
+	 * indicates if the dictionnary has to take care of the case of the
+	 * characters or not
+	 */
+	public boolean caseSensitive;
+
+	/**
+	 * The name for the controlled vocabulary, i.e. the name of the file on
+	 * which the dictionnary has been loaded.
+	 */
+	public String name;
+
+	public BufferedReader input;
+
+	public URL fileURL;
+
+	/**
+	 * The field separator
+	 */
+	public String separator;
+
+	/**
+	 * The longest list readed on a line. Can be used to have the best overview
+	 * of a value and its available definitions or to choose a definition.
+	 */
+	public String maxDefinitionLine;
+
+	/**
+	 * load a dictionnary
+	 * 
+	 * @param f
+	 *            the file containing the dictionnary
+	 * @param separator
+	 *            the string separating the words
+	 * @throws FileNotFoundException
+	 */
+	public void load(URL url, String separator) throws FileNotFoundException,
+			java.util.regex.PatternSyntaxException, IOException {
+
+		if (isSnapshot(url)) {
+			loadSnapshot(url);
+			return;
+		}
+
+		this.fileURL = url;
+		this.input = new BufferedReader(new InputStreamReader(fileURL
+				.openStream()));
+
+		Utils.lastVisitedDirectory = url.getPath();
+		Utils.lastVisitedDictionaryDirectory = url.getPath();
+
+		int maxDefinitionsNumber = 0;
+		if (compact && false == store instanceof CompactDictionaryStore)
+			store = new CompactDictionaryStore();
+		else if (!compact && false == store instanceof HashMapDictionaryStore)
+			store = new HashMapDictionaryStore(dictionnary);
+		/* memory that would be used by a HashMap store, for comparison */
+		long hashMapUsage = 0;
+
+		FieldSplitter splitter;
+		try {
+			splitter = new FieldSplitter(separator);
+		} catch (java.util.regex.PatternSyntaxException ex) {
+			/** TODO : manage exception */
+			return;
+		} catch (NullPointerException e) { /* no separator */
+			return;
+		}
+
+		while (true) {
+			try {
+				String line = input.readLine().trim();
+				String[] values = splitter.split(line + " ");
+				if (values.length > 0) {
+					// make it possible to have empty lines
+
+					String value = values[0].trim();
+					String[] definitions = new String[values.length - 1];
+
+					for (int i = 1; i < values.length; i++) {
+						definitions[i - 1] = values[i].trim();
+					}
+
+					if (definitions.length > maxDefinitionsNumber) {
+						maxDefinitionsNumber = definitions.length;
+						maxDefinitionLine = line;
+					}
+
+					if (!caseSensitive) {
+						value = value.toLowerCase().trim();
+					} else {
+						value = value.trim();
+					}
+					store.put(value, definitions);
+					hashMapUsage += HashMapDictionaryStore.getEntrySize(value,
+							definitions);
+				}
+				name = Utils.relativizeURL(fileURL).getPath();
+				this.separator = separator;
+			} catch (java.util.regex.PatternSyntaxException ex) {
+				/** TODO : manage exception */
+				return;
+			} catch (IllegalStateException e) { /* store full */
+				IOException exception = new IOException("dictionary "
+						+ url.getPath() + ": " + e.getMessage());
+				exception.initCause(e);
+				throw exception;
+			} catch (Exception e) { /* end of file */
+				logMemoryUsage(hashMapUsage);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the file is a dictionary snapshot
+	 */
+	public static boolean isSnapshot(URL url) throws IOException {
+		InputStream in = url.openStream();
+		try {
+			byte[] magic = new byte[4];
+			int length = 0;
+			while (length < 4) {
+				int read = in.read(magic, length, 4 - length);
+				if (read < 0)
+					return false;
+				length += read;
+			}
+			return (((magic[0] & 0xFF) << 24) | ((magic[1] & 0xFF) << 16)
+					| ((magic[2] & 0xFF) << 8) | (magic[3] & 0xFF)) == SNAPSHOT_MAGIC;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * load a dictionary snapshot. Only the header is read: the definitions
+	 * stay in the file, which is mapped in memory. The case sensitivity and
+	 * the separator are the ones used to compile the snapshot.
+	 * 
+	 * @param url
+	 *            the snapshot, which has to be a local file
+	 */
+	public void loadSnapshot(URL url) throws IOException {
+		File file;
+		try {
+			file = new File(url.toURI());
+		} catch (URISyntaxException e) {
+			file = new File(url.getPath());
+		} catch (IllegalArgumentException e) {
+			/* relative path */
+			file = new File(url.getPath());
+		}
+
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		int tablePosition;
+		try {
+			if (in.readInt() != SNAPSHOT_MAGIC)
+				throw new IOException("not a dictionary snapshot: "
+						+ file.getPath());
+			int version = in.readInt();
+			if (version != SNAPSHOT_VERSION)
+				throw new IOException("unsupported dictionary snapshot version "
+						+ version + ": " + file.getPath());
+			caseSensitive = in.readBoolean();
+			tablePosition = 9;
+			byte[][] strings = new byte[3][];
+			for (int i = 0; i < strings.length; i++) {
+				int length = in.readInt();
+				tablePosition += 4;
+				if (length >= 0) {
+					strings[i] = new byte[length];
+					in.readFully(strings[i]);
+					tablePosition += length;
+				}
+			}
+			name = strings[0] == null ? null : new String(strings[0], "UTF-8");
+			separator = strings[1] == null ? null : new String(strings[1],
+					"UTF-8");
+			maxDefinitionLine = strings[2] == null ? null : new String(
+					strings[2], "UTF-8");
+		} finally {
+			in.close();
+		}
+
+		store = new MappedDictionaryStore(file, tablePosition);
+		dictionnary = new HashMap<String, ArrayList<String>>();
+		fileURL = url;
+		Utils.lastVisitedDictionaryDirectory = url.getPath();
+		log.info("dictionary snapshot " + name + ": " + store.size()
+				+ " entries, " + store.getMemoryUsage() + " bytes mapped");
+	}
+
+	/**
+	 * write the dictionary in a snapshot, that can be loaded with
+	 * loadSnapshot. Nothing is written if the snapshot would be too large to
+	 * be mapped in memory.
+	 */
+	public void saveSnapshot(File file) throws IOException {
+		CompactDictionaryStore compactStore;
+		if (store instanceof CompactDictionaryStore) {
+			compactStore = (CompactDictionaryStore) store;
+		} else if (store instanceof HashMapDictionaryStore) {
+			compactStore = new CompactDictionaryStore();
+			for (String value : dictionnary.keySet()) {
+				ArrayList<String> list = dictionnary.get(value);
+				String[] definitions = new String[list.size()];
+				for (int i = 0; i < definitions.length; i++) {
+					/* remove the trailing space */
+					String definition = list.get(i);
+					definitions[i] = definition.substring(0,
+							definition.length() - 1);
+				}
+				compactStore.put(value, definitions);
+			}
+		} else {
+			throw new IOException("dictionary " + name
+					+ " cannot be written in a snapshot");
+		}
+
+		String[] strings = { name, separator, maxDefinitionLine };
+		byte[][] bytes = new byte[strings.length][];
+		long length = 9 + compactStore.getWrittenLength();
+		for (int i = 0; i < strings.length; i++) {
+			length += 4;
+			if (strings[i] != null) {
+				bytes[i] = strings[i].getBytes("UTF-8");
+				length += bytes[i].length;
+			}
+		}
+		if (length > MappedDictionaryStore.MAX_LENGTH)
+			throw new IOException("dictionary " + name
+					+ " too large for a snapshot: " + length + " bytes, "
+					+ MappedDictionaryStore.MAX_LENGTH + " at most");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeBoolean(caseSensitive);
+			for (int i = 0; i < bytes.length; i++) {
+				if (bytes[i] == null) {
+					out.writeInt(-1);
+				} else {
+					out.writeInt(bytes[i].length);
+					out.write(bytes[i]);
+				}
+			}
+			compactStore.write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void logMemoryUsage(long hashMapUsage) {
+		int size = store.size();
+		if (size == 0)
+			return;
+		long usage = store.getMemoryUsage();
+		log.info("dictionary " + name + ": " + size + " entries, " + usage
+				+ " bytes (" + usage / size + " bytes per entry, "
+				+ hashMapUsage / size + " with a HashMap)");
+	}
+
+	/**
+	 * constructor by default. The ditionnary is set as case sensitive
+	 */
+	public Dictionary() {
+		super();
+		caseSensitive = true;
+	}
+
+	/**
+	 * constructor with specification of case sensitivity
+	 * 
+	 * @param caseSensitive
+	 */
+	public Dictionary(boolean caseSensitive) {
+		super();
+		this.caseSensitive = caseSensitive;
+	}
+
+	/**
+	 * create a new instance of Dictionnary with specified case sensitivity and
+	 * load specified file using the separator
+	 * 
+	 * @param f
+	 *            the file to load
+	 * @param separator
+	 *            the separator for words on each line
+	 * @param caseSensitive
+	 * @throws FileNotFoundException
+	 */
+	public Dictionary(URL url, String separator, boolean caseSensitive)
+			throws FileNotFoundException, IOException {
+		this(url, separator, caseSensitive, false);
+	}
+
+	/**
+	 * create a new instance of Dictionnary with specified case sensitivity and
+	 * load specified file using the separator
+	 * 
+	 * @param compact
+	 *            true to keep the dictionary in a CompactDictionaryStore
+	 */
+	public Dictionary(URL url, String separator, boolean caseSensitive,
+			boolean compact) throws FileNotFoundException, IOException {
+		this.caseSensitive = caseSensitive;
+		this.compact = compact;
+		this.fileURL = url;
+		load(fileURL, separator);
+	}
+
+	/**
+	 * get the value associated to this word
+	 * 
+	 * @param value
+	 *            the word
+	 * @param definitionNumber
+	 *            the number of the definition to look for, as a value can have
+	 *            more than one definition, i.e. the postition of the definition
+	 *            on a line.
+	 * @return the definition
+	 */
+	public String getDefinition(String value, int definitionNumber) {
+		try {
+			if (caseSensitive) {
+				return store.getDefinition(value, definitionNumber);
+			} else {
+				return store.getDefinition(value.toLowerCase(),
+						definitionNumber);
+			}
+		} catch (NullPointerException e) {
+			return null;
+		}
+	}
+
+	public String[] exampleList() {
+		if (maxDefinitionLine == null) {
+			String value[] = {};
+			return value;
+		}
+		return (maxDefinitionLine).split(separator);
+	}
+
+	public String exampleLine() {
+		if (maxDefinitionLine == null) {
+			return "";
+		}
+		return maxDefinitionLine;
+	}
+
+	/**
+	 * @return the name of the dictionnary
+	 */
+	public String toString() {
+		return name;
+	}
+
+	public String getSeparator() {
+		return separator;
+	}
+
+	public boolean isCaseSensitive() {
+		return caseSensitive;
+	}
+
+	/**
+	 * @return Returns the dictionnary.
+	 */
+	public HashMap<String, ArrayList<String>> getDictionnary() {
+		return dictionnary;
+	}
+
+	/**
+	 * @param dictionnary
+	 *            The dictionnary to set.
+	 */
+	public void setDictionnary(HashMap<String, ArrayList<String>> dictionnary) {
+		this.dictionnary = dictionnary;
+		this.store = new HashMapDictionaryStore(dictionnary);
+	}
+
+	public boolean isCompact() {
+		return compact;
+	}
+
+	public void setCompact(boolean compact) {
+		this.compact = compact;
+	}
+
+	/**
+	 * @return Returns the index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @param index
+	 *            The index to set.
+	 */
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return Returns the maxDefinitionLine.
+	 */
+	public String getMaxDefinitionLine() {
+		return maxDefinitionLine;
+	}
+
+	/**
+	 * @param maxDefinitionLine
+	 *            The maxDefinitionLine to set.
+	 * 
+	 */
+	public void setMaxDefinitionLine(String maxDefinitionLine) {
+		this.maxDefinitionLine = maxDefinitionLine;
+	}
+
+	/**
+	 * @return Returns the name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @param name
+	 *            The name to set.
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param caseSensitive
+	 *            The caseSensitive to set.
+	 */
+	public void setCaseSensitive(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+	}
+
+	/**
+	 * @param separator
+	 *            The separator to set.
+	 */
+	public void setSeparator(String separator) {
+		this.separator = separator;
+	}
+
+	public DictionaryMapping getMapping() {
+		DictionaryMapping mapping = new DictionaryMapping();
+		if (this.fileURL != null)
+			mapping.setFileURL(Utils.relativizeURL(this.fileURL).getPath());
+		mapping.setCaseSensitive(this.isCaseSensitive());
+		mapping.setSeparator(this.separator);
+		mapping.setCompact(this.compact);
+		return mapping;
+	}
+
+	/**
+	 * @return Returns the fileURI.
+	 */
+	public URL getFileURL() {
+		return fileURL;
+	}
+
+	/**
+	 * @param fileURI
+	 *            The fileURI to set.
+	 */
+	public void setFileURL(URL fileURI) {
+		this.fileURL = fileURI;
+	}
+
 }
\ No newline at end of file
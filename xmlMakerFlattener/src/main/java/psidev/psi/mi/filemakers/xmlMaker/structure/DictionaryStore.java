@@ -0,0 +1,58 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+/**
+ * Keep the words of a dictionary and their definitions.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public interface DictionaryStore {
+
+	/**
+	 * associate a list of definitions to a word. If the word is already in
+	 * the dictionary, its previous definitions are replaced.
+	 *
+	 * @param value
+	 *            the word
+	 * @param definitions
+	 *            the definitions, already trimmed
+	 */
+	public void put(String value, String[] definitions);
+
+	/**
+	 * get a definition of a word
+	 *
+	 * @param value
+	 *            the word
+	 * @param definitionNumber
+	 *            the position of the definition on the line, starting from 1
+	 * @return the definition followed by a space, or null if the word or
+	 *         the definition does not exist
+	 */
+	public String getDefinition(String value, int definitionNumber);
+
+	/**
+	 * @return the number of words in the dictionary
+	 */
+	public int size();
+
+	/**
+	 * @return an estimation of the memory used to keep the dictionary, in
+	 *         bytes
+	 */
+	public long getMemoryUsage();
+}
@@ -0,0 +1,160 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Split a line or a field according to a separator. Separators are regular
+ * expressions, but most of them are a simple character like a tab, a pipe or
+ * a semicolon: in this case the fields are found by looking for the separator
+ * in the String, without using the regular expression engine.
+ *
+ * The result is always the same as the one of
+ * <code>String.split(separator)</code>, in particular the empty fields at
+ * the end of the line are removed.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class FieldSplitter {
+
+	private final static String REGEXP_CHARACTERS = ".$|()[]{}^?*+\\";
+
+	private final String separator;
+
+	/**
+	 * the separator, if it does not need the regular expression engine
+	 */
+	private final String literal;
+
+	private final Pattern pattern;
+
+	/**
+	 * @param separator
+	 *            a regular expression
+	 * @throws PatternSyntaxException
+	 *             if the separator is not a valid regular expression
+	 */
+	public FieldSplitter(String separator) throws PatternSyntaxException {
+		this.separator = separator;
+		this.literal = getLiteral(separator);
+		if (literal == null)
+			pattern = Pattern.compile(separator);
+		else
+			pattern = null;
+	}
+
+	/**
+	 * @return the text matched by the regular expression if it matches only
+	 *         this text, null if the regular expression engine is needed
+	 */
+	private static String getLiteral(String separator) {
+		if (separator.length() == 0)
+			return null;
+		if (separator.length() == 2 && separator.charAt(0) == '\\') {
+			char c = separator.charAt(1);
+			if (REGEXP_CHARACTERS.indexOf(c) >= 0)
+				return String.valueOf(c);
+			if (c == 't')
+				return "\t";
+			return null;
+		}
+		for (int i = 0; i < separator.length(); i++) {
+			if (REGEXP_CHARACTERS.indexOf(separator.charAt(i)) >= 0)
+				return null;
+		}
+		return separator;
+	}
+
+	/**
+	 * @return true if the separator does not need the regular expression
+	 *         engine
+	 */
+	public boolean isLiteral() {
+		return literal != null;
+	}
+
+	public String getSeparator() {
+		return separator;
+	}
+
+	private int indexOf(String s, int fromIndex) {
+		if (literal.length() == 1)
+			return s.indexOf(literal.charAt(0), fromIndex);
+		return s.indexOf(literal, fromIndex);
+	}
+
+	/**
+	 * @return the same fields as <code>s.split(separator)</code>
+	 */
+	public String[] split(String s) {
+		if (pattern != null)
+			return pattern.split(s);
+
+		int nbFields = count(s);
+		if (nbFields == 1 && indexOf(s, 0) < 0) {
+			String[] fields = { s };
+			return fields;
+		}
+
+		String[] fields = new String[nbFields];
+		int start = 0;
+		for (int i = 0; i < nbFields; i++) {
+			int end = indexOf(s, start);
+			if (end < 0)
+				end = s.length();
+			fields[i] = s.substring(start, end);
+			start = end + literal.length();
+		}
+		return fields;
+	}
+
+	/**
+	 * @return the number of fields, i.e.
+	 *         <code>s.split(separator).length</code>, without splitting
+	 *         the String
+	 */
+	public int count(String s) {
+		if (pattern != null)
+			return pattern.split(s).length;
+
+		int start = 0;
+		int nbFields = 0;
+		/* number of fields, without the empty ones at the end */
+		int kept = 0;
+		while (true) {
+			int end = indexOf(s, start);
+			if (end < 0) {
+				if (nbFields == 0)
+					/* no separator: the whole String */
+					return 1;
+				nbFields++;
+				if (s.length() > start)
+					kept = nbFields;
+				return kept;
+			}
+			nbFields++;
+			if (end > start)
+				kept = nbFields;
+			start = end + literal.length();
+		}
+	}
+
+	public String toString() {
+		return separator;
+	}
+}
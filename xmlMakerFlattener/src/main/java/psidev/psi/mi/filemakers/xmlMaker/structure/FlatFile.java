@@ -1,426 +1,908 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlMaker.structure;
-
-import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.HashMap;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import psidev.psi.mi.filemakers.xmlMaker.mapping.FlatFileMapping;
-import psidev.psi.mi.filemakers.xsd.FileMakersException;
-import psidev.psi.mi.filemakers.xsd.Utils;
-
-/**
- * The class provide graphical management for a tab delimited file <br>
- * It allows to load a file, choose the field delimitor, and recursively enter
- * into the fields and split them.
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- */
-public class FlatFile {
-
-	private static final Log log = LogFactory.getLog(FlatFile.class);
-
-	public FlatFileMapping getMapping() {
-		if (this.fileURL == null)
-			return null;
-		FlatFileMapping mapping = new FlatFileMapping();
-		mapping.setFileURL(Utils.relativizeURL(this.fileURL).getPath());
-		mapping.setLineSeparator(this.lineSeparator);
-		mapping.setSeparators(this.separators);
-		mapping.setFisrtLineForTitle(this.firstLineForTitles());
-		return mapping;
-	}
-
-	public int index = 0;
-
-	public Integer indexI = new Integer(9);
-
-	/**
-	 * true if first line of the file contains titles and should not be parse
-	 */
-	public boolean firstLineForTitles = false;
-
-	/**
-	 * associate a path to a separator
-	 */
-	private HashMap<String, String> separators = new HashMap<String, String>();
-
-	/**
-	 * current line
-	 */
-	public String line = "";
-
-	/**
-	 * current line number
-	 */
-	public int lineNumber = 0;
-
-	public void setSeparator(String path, String separator) {
-		separators.remove(path);
-		separators.put(path, separator);
-	}
-
-	public String getSeparator(String path) {
-		return (String) separators.get(path);
-	}
-
-	/**
-	 * part of previous line that has not been readed used when the line
-	 * separator is not the end of the line
-	 */
-	public String restOfPreviousLine = new String();
-
-	public boolean endOfFile = true;
-
-	/**
-	 * line separator: if null, lines will be read one by one in the file else
-	 * the readline function will read the file until it find the separator
-	 */
-	public String lineSeparator = null;
-
-	public String getElementAt(String path, String modelPath) {
-		if (path.length() == 0)
-			return line;
-		if (modelPath == null)
-			modelPath = path;
-		String subpath = "";
-		String[] paths = path.split("\\.");
-		String[] modelPaths = modelPath.split("\\.");
-		String field = line;
-
-		for (int i = 0; i < paths.length; i++) {
-			String separator = (String) separators.get(subpath);
-			String[] fields;
-			if (separator == null) {
-				fields = new String[1];
-				fields[0] = field;
-			} else
-				fields = field.split(separator);
-			try {
-				field = fields[Integer.parseInt(paths[i])];
-			} catch (java.lang.ArrayIndexOutOfBoundsException e) {
-				/* no element in this subfield */
-				return "";
-			}
-			if (i > 0)
-				subpath += "." + modelPaths[i];
-			else
-				subpath += modelPaths[i];
-		}
-
-		return field;
-	}
-
-	/**
-	 * set current line in this Object and recursively in all lists
-	 */
-	public void setLine(String aLine) {
-		line = aLine;
-	}
-
-	public BufferedReader input;
-
-	public URL fileURL;
-
-	/**
-	 * Initialize the reader and the file
-	 */
-	public void reload() throws FileMakersException, MalformedURLException,
-			IOException {
-		try {
-			if (fileURL != null) {
-				this.input = new BufferedReader(new InputStreamReader(fileURL
-						.openStream()));
-			}
-			lineNumber = 0;
-		} catch (FileNotFoundException fe) {
-			throw new FileMakersException(
-					"[PSI makers: PSI maker] Flat File: unable to load file");
-		}
-	}
-
-	/**
-	 * load a flat file. The file is choosed by the user in an option panel
-	 */
-	public void load(URL url) throws FileNotFoundException,
-			NullPointerException, MalformedURLException, IOException {
-		lineNumber = 0;
-		this.fileURL = url;
-		this.input = new BufferedReader(new InputStreamReader((fileURL
-				.openStream())));
-		nextLine();
-	}
-
-	/**
-	 * try to read a new line
-	 */
-	public void nextLine() {
-		if (input == null) {
-			endOfFile = true;
-			return;
-		}
-
-		if (lineSeparator == null) {
-			try {
-				String newLine = input.readLine();
-				if (newLine != null) {
-					setLine(newLine);
-					endOfFile = false;
-					lineNumber++;
-				} else {
-					endOfFile = true;
-				}
-			} catch (IOException e) {
-				System.out.println("nextline pb: " + e.toString());
-				endOfFile = true;
-			}
-		} else /* read until lineSeparator is found */{
-			String line = restOfPreviousLine;
-			StringBuffer newLine = new StringBuffer();
-			try {
-				while (line.indexOf(lineSeparator) < 0) {
-					newLine.append(line);
-					line = input.readLine();
-					lineNumber++;
-				}
-				newLine.append(line.substring(0, line.indexOf(lineSeparator)));
-				restOfPreviousLine = line.substring(line.indexOf(lineSeparator)
-						+ lineSeparator.length());
-
-				if (newLine != null) {
-					setLine(newLine.toString());
-					endOfFile = false;
-				} else {
-					endOfFile = true;
-				}
-
-			} catch (IOException e) {
-				if (newLine.length() != 0) {
-					setLine(newLine.toString());
-					endOfFile = true;
-				} else {
-					endOfFile = true;
-				}
-			}
-		}
-	}
-
-	/**
-	 * try to read a new line until one with selected field not empty is found
-	 */
-	public void nextLineWithField(String path) {
-		if (input == null)
-			return;
-
-		nextLine();
-		getElementAt(path, null);
-		while (getElementAt(path, null).length() == 0 && !endOfFile) {
-			nextLine();
-		}
-	}
-
-	/**
-	 * @return true if a line has been readed
-	 */
-	public boolean hasLine() {
-		// return line != null;
-		return !endOfFile;
-	}
-
-	/**
-	 * go back to the beginning of the file
-	 */
-	public void restartFile() throws FileMakersException, IOException {
-		reload();
-		nextLine();
-	}
-
-	/**
-	 * Return true if the first line of the file is used for titles. Used to
-	 * know wether or not to parse the first line.
-	 * 
-	 * @return true if the first line of the file is used for titles
-	 */
-	public boolean firstLineForTitles() {
-		return firstLineForTitles;
-	}
-
-	/**
-	 * 
-	 * @uml.property name="lineNumber"
-	 */
-	public int getLineNumber() {
-		return lineNumber;
-	}
-
-	public String getCurLine() {
-		return line;
-	}
-
-	public void save(XMLEncoder oos) {
-		oos.writeObject(new Boolean(firstLineForTitles));
-		oos.writeObject(lineSeparator);
-		oos.writeObject(lineSeparator);
-		oos.writeObject(separators);
-	}
-
-	public void load(XMLDecoder ois) {
-		firstLineForTitles = ((Boolean) ois.readObject()).booleanValue();
-		lineSeparator = (String) ois.readObject();
-		/** TODO: if file not found -> open a filechooser */
-		separators = (HashMap<String, String>) ois.readObject();
-		String filePath = (String) ois.readObject();
-	}
-
-	/**
-	 * @return Returns the endOfFile.
-	 */
-	public boolean isEndOfFile() {
-		return endOfFile;
-	}
-
-	/**
-	 * @param endOfFile
-	 *            The endOfFile to set.
-	 */
-	public void setEndOfFile(boolean endOfFile) {
-		this.endOfFile = endOfFile;
-	}
-
-	/**
-	 * @return Returns the index.
-	 */
-	public int getIndex() {
-		return index;
-	}
-
-	/**
-	 * @param index
-	 *            The index to set.
-	 */
-	public void setIndex(int index) {
-		this.index = index;
-	}
-
-	/**
-	 * @return Returns the indexI.
-	 */
-	public Integer getIndexI() {
-		return indexI;
-	}
-
-	/**
-	 * @param indexI
-	 *            The indexI to set.
-	 */
-	public void setIndexI(Integer indexI) {
-		this.indexI = indexI;
-	}
-
-	/**
-	 * @return Returns the lineSeparator.
-	 */
-	public String getLineSeparator() {
-		return lineSeparator;
-	}
-
-	/**
-	 * @param lineSeparator
-	 *            The lineSeparator to set.
-	 */
-	public void setLineSeparator(String lineSeparator) {
-		this.lineSeparator = lineSeparator;
-	}
-
-	/**
-	 * @return Returns the restOfPreviousLine.
-	 */
-	public String getRestOfPreviousLine() {
-		return restOfPreviousLine;
-	}
-
-	/**
-	 * @param restOfPreviousLine
-	 *            The restOfPreviousLine to set.
-	 */
-	public void setRestOfPreviousLine(String restOfPreviousLine) {
-		this.restOfPreviousLine = restOfPreviousLine;
-	}
-
-	/**
-	 * @return Returns the separators.
-	 */
-	public HashMap<String, String> getSeparators() {
-		return separators;
-	}
-
-	/**
-	 * @param separators
-	 *            The separators to set.
-	 */
-	public void setSeparators(HashMap<String, String> separators) {
-		this.separators = separators;
-	}
-
-	/**
-	 * @return Returns the titleLine.
-	 */
-	public boolean isTitleLine() {
-		return firstLineForTitles;
-	}
-
-	/**
-	 * @param titleLine
-	 *            The titleLine to set.
-	 */
-	public void setTitleLine(boolean titleLine) {
-		this.firstLineForTitles = titleLine;
-	}
-
-	/**
-	 * @return Returns the line.
-	 */
-	public String getLine() {
-		return line;
-	}
-
-	/**
-	 * @param lineNumber
-	 *            The lineNumber to set.
-	 */
-	public void setLineNumber(int lineNumber) {
-		this.lineNumber = lineNumber;
-	}
-
-	/**
-	 * @param firstLineForTitles
-	 *            The firstLineForTitles to set.
-	 */
-	public void setFirstLineForTitles(boolean firstLineForTitles) {
-		log.debug("title line: " + firstLineForTitles);
-		this.firstLineForTitles = firstLineForTitles;
-	}
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import psidev.psi.mi.filemakers.xmlMaker.mapping.FlatFileMapping;
+import psidev.psi.mi.filemakers.xsd.FileMakersException;
+import psidev.psi.mi.filemakers.xsd.Utils;
+
+/**
+ * The class provide graphical management for a tab delimited file <br>
+ * It allows to load a file, choose the field delimitor, and recursively enter
+ * into the fields and split them.
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class FlatFile {
+
+	private static final Log log = LogFactory.getLog(FlatFile.class);
+
+	public FlatFileMapping getMapping() {
+		if (this.fileURL == null)
+			return null;
+		FlatFileMapping mapping = new FlatFileMapping();
+		mapping.setFileURL(Utils.relativizeURL(this.fileURL).getPath());
+		mapping.setLineSeparator(this.lineSeparator);
+		mapping.setSeparators(this.separators);
+		mapping.setFisrtLineForTitle(this.firstLineForTitles());
+		mapping.setJoinField(this.joinField);
+		mapping.setParentJoinField(this.parentJoinField);
+		return mapping;
+	}
+
+	public int index = 0;
+
+	public Integer indexI = new Integer(9);
+
+	/**
+	 * true if first line of the file contains titles and should not be parse
+	 */
+	public boolean firstLineForTitles = false;
+
+	/**
+	 * path of the field used to join the lines of this file with the ones of
+	 * a parent file, null if there is no join
+	 */
+	public String joinField = null;
+
+	/**
+	 * path of the field of the parent file, including the index of the file
+	 */
+	public String parentJoinField = null;
+
+	/**
+	 * for each value of the join field, the numbers of the lines having this
+	 * value
+	 */
+	private HashMap<String, int[]> joinIndex = null;
+
+	private final static int[] NO_LINE = new int[0];
+
+	/**
+	 * @return true if the lines of this file are joined to the ones of a
+	 *         parent file
+	 */
+	public boolean hasJoin() {
+		return joinField != null && parentJoinField != null;
+	}
+
+	/**
+	 * get the lines which join field has the given value. The index of the
+	 * file is built the first time, by reading the whole file once.
+	 * 
+	 * @param key
+	 *            the value of the field in the parent file
+	 * @return the numbers of the lines, in the order of the file
+	 */
+	public int[] getJoinedLines(String key) throws FileMakersException,
+			IOException {
+		if (joinIndex == null)
+			buildJoinIndex();
+		if (key == null)
+			return NO_LINE;
+		int[] lines = joinIndex.get(key.trim());
+		if (lines == null)
+			return NO_LINE;
+		return lines;
+	}
+
+	private void buildJoinIndex() throws FileMakersException, IOException {
+		HashMap<String, ArrayList<Integer>> index = new HashMap<String, ArrayList<Integer>>();
+		restartFile();
+		if (firstLineForTitles())
+			nextLine();
+		while (hasLine()) {
+			String key = getElementAt(joinField, null).trim();
+			/* lines without key are never joined */
+			if (key.length() > 0) {
+				ArrayList<Integer> lines = index.get(key);
+				if (lines == null) {
+					lines = new ArrayList<Integer>();
+					index.put(key, lines);
+				}
+				lines.add(new Integer(lineNumber));
+			}
+			nextLine();
+		}
+		restartFile();
+
+		joinIndex = new HashMap<String, int[]>();
+		for (String key : index.keySet()) {
+			ArrayList<Integer> lines = index.get(key);
+			int[] numbers = new int[lines.size()];
+			for (int i = 0; i < numbers.length; i++)
+				numbers[i] = lines.get(i).intValue();
+			joinIndex.put(key, numbers);
+		}
+	}
+
+	public String getJoinField() {
+		return joinField;
+	}
+
+	public void setJoinField(String joinField) {
+		this.joinField = joinField;
+		joinIndex = null;
+	}
+
+	public String getParentJoinField() {
+		return parentJoinField;
+	}
+
+	public void setParentJoinField(String parentJoinField) {
+		this.parentJoinField = parentJoinField;
+	}
+
+	/**
+	 * associate a path to a separator
+	 */
+	private HashMap<String, String> separators = new HashMap<String, String>();
+
+	/**
+	 * current line
+	 */
+	public String line = "";
+
+	/**
+	 * current line number
+	 */
+	public int lineNumber = 0;
+
+	/**
+	 * lines read since the counters have been reset, including the lines
+	 * read again after a restart
+	 */
+	private long linesRead = 0;
+
+	/**
+	 * bytes read since the counters have been reset, or characters for files
+	 * read as a stream
+	 */
+	private long bytesRead = 0;
+
+	public void setSeparator(String path, String separator) {
+		separators.remove(path);
+		separators.put(path, separator);
+		clearSplitters();
+		joinIndex = null;
+	}
+
+	public String getSeparator(String path) {
+		return (String) separators.get(path);
+	}
+
+	/**
+	 * splitters already compiled for each separator
+	 */
+	private HashMap<String, FieldSplitter> splitters = new HashMap<String, FieldSplitter>();
+
+	/**
+	 * @return the splitter for the separator associated to the path, null if
+	 *         no separator is defined
+	 */
+	public FieldSplitter getSplitter(String path) {
+		String separator = (String) separators.get(path);
+		if (separator == null)
+			return null;
+		FieldSplitter splitter = splitters.get(separator);
+		if (splitter == null) {
+			splitter = new FieldSplitter(separator);
+			splitters.put(separator, splitter);
+		}
+		return splitter;
+	}
+
+	private void clearSplitters() {
+		splitters.clear();
+		pathSplitters.clear();
+		fieldSplitters.clear();
+	}
+
+	/**
+	 * part of previous line that has not been readed used when the line
+	 * separator is not the end of the line
+	 */
+	public String restOfPreviousLine = new String();
+
+	public boolean endOfFile = true;
+
+	/**
+	 * line separator: if null, lines will be read one by one in the file else
+	 * the readline function will read the file until it find the separator
+	 */
+	public String lineSeparator = null;
+
+	/**
+	 * get the value of a field in the current line
+	 * 
+	 * @param path
+	 *            the path of the field, e.g. "0.3.1"
+	 * @param modelPath
+	 *            the path used to find the separators, if the path has been
+	 *            shifted by a filter. If null, the path itself is used.
+	 * @return the value of the field, an empty String if it does not exist
+	 */
+	public String getElementAt(String path, String modelPath) {
+		if (path.length() == 0)
+			return line;
+		if (modelPath == null)
+			modelPath = path;
+		return getElementAt(compilePath(path), getPathSplitters(modelPath));
+	}
+
+	/**
+	 * get the value of a field in the current line
+	 * 
+	 * @param path
+	 *            the index of the field at each level
+	 * @param pathSplitters
+	 *            the splitters to use at each level, as returned by
+	 *            <code>getPathSplitters</code>
+	 * @return the value of the field, an empty String if it does not exist
+	 */
+	public String getElementAt(int[] path, FieldSplitter[] pathSplitters) {
+		return getElementAt(path, 0, pathSplitters);
+	}
+
+	/**
+	 * get the value of a field in the current line
+	 * 
+	 * @param path
+	 *            the index of the field at each level, from the index
+	 *            <code>from</code>
+	 * @param from
+	 *            the first index of the path to use
+	 * @param pathSplitters
+	 *            the splitters to use at each level, from the first one
+	 * @return the value of the field, an empty String if it does not exist
+	 */
+	public String getElementAt(int[] path, int from,
+			FieldSplitter[] pathSplitters) {
+		if (lineFields == null)
+			lineFields = new SplitField();
+		SplitField splitField = lineFields;
+		String field = line;
+
+		for (int i = from; i < path.length; i++) {
+			int level = i - from;
+			FieldSplitter splitter = level < pathSplitters.length ? pathSplitters[level]
+					: null;
+			String[] fields = splitField.split(field, splitter);
+			int index = path[i];
+			if (index < 0 || index >= fields.length) {
+				/* no element in this subfield */
+				return "";
+			}
+			field = fields[index];
+			if (i < path.length - 1)
+				splitField = splitField.getSubField(index);
+		}
+
+		return field;
+	}
+
+	/**
+	 * count the sub fields of a field of the current line. The field is split
+	 * and kept with the fields of the line, so that its sub fields are not
+	 * split again when their values are read.
+	 * 
+	 * @param path
+	 *            the index of the field at each level, from the index
+	 *            <code>from</code>
+	 * @param from
+	 *            the first index of the path to use
+	 * @param fieldSplitters
+	 *            the splitters as returned by <code>getFieldSplitters</code>:
+	 *            the last one is used to split the field itself
+	 * @return the number of sub fields, 1 if the field does not exist
+	 */
+	public int countElements(int[] path, int from,
+			FieldSplitter[] fieldSplitters) {
+		FieldSplitter fieldSplitter = fieldSplitters[path.length - from];
+		if (lineFields == null)
+			lineFields = new SplitField();
+		SplitField splitField = lineFields;
+		String field = line;
+
+		for (int i = from; i < path.length; i++) {
+			String[] fields = splitField.split(field, fieldSplitters[i - from]);
+			int index = path[i];
+			if (index < 0 || index >= fields.length) {
+				/* no element in this subfield */
+				return fieldSplitter.count("");
+			}
+			field = fields[index];
+			splitField = splitField.getSubField(index);
+		}
+
+		return splitField.split(field, fieldSplitter).length;
+	}
+
+	/**
+	 * paths already converted to arrays of indexes
+	 */
+	private HashMap<String, int[]> compiledPaths = new HashMap<String, int[]>();
+
+	/**
+	 * splitters already found for each path
+	 */
+	private HashMap<String, FieldSplitter[]> pathSplitters = new HashMap<String, FieldSplitter[]>();
+
+	/**
+	 * convert a path like "0.3.1" to an array of indexes
+	 */
+	public int[] compilePath(String path) {
+		int[] indexes = compiledPaths.get(path);
+		if (indexes == null) {
+			String[] paths = path.split("\\.");
+			indexes = new int[paths.length];
+			for (int i = 0; i < paths.length; i++)
+				indexes[i] = Integer.parseInt(paths[i]);
+			compiledPaths.put(path, indexes);
+		}
+		return indexes;
+	}
+
+	/**
+	 * find the splitters used at each level to get to the field
+	 * 
+	 * @param modelPath
+	 *            the path of the field, e.g. "0.3.1"
+	 * @return the splitter used to split the line, then to split each sub
+	 *         field. null if a field is not split.
+	 */
+	public FieldSplitter[] getPathSplitters(String modelPath) {
+		FieldSplitter[] result = pathSplitters.get(modelPath);
+		if (result == null) {
+			String[] modelPaths = modelPath.split("\\.");
+			result = new FieldSplitter[modelPaths.length];
+			String subpath = "";
+			for (int i = 0; i < modelPaths.length; i++) {
+				result[i] = getSplitter(subpath);
+				if (i > 0)
+					subpath += "." + modelPaths[i];
+				else
+					subpath += modelPaths[i];
+			}
+			pathSplitters.put(modelPath, result);
+		}
+		return result;
+	}
+
+	/**
+	 * splitters found for each path given as an array of indexes
+	 */
+	private HashMap<PathKey, FieldSplitter[]> fieldSplitters = new HashMap<PathKey, FieldSplitter[]>();
+
+	/**
+	 * key used to look for a path in <code>fieldSplitters</code>, without
+	 * creating a new key each time
+	 */
+	private PathKey pathProbe = new PathKey();
+
+	/**
+	 * a path given as a part of an array of indexes
+	 */
+	private static class PathKey {
+		int[] path;
+
+		int from;
+
+		int hash;
+
+		void set(int[] path, int from) {
+			this.path = path;
+			this.from = from;
+			hash = 1;
+			for (int i = from; i < path.length; i++)
+				hash = 31 * hash + path[i];
+		}
+
+		public int hashCode() {
+			return hash;
+		}
+
+		public boolean equals(Object o) {
+			if (false == o instanceof PathKey)
+				return false;
+			PathKey key = (PathKey) o;
+			if (path.length - from != key.path.length - key.from)
+				return false;
+			for (int i = from, j = key.from; i < path.length; i++, j++)
+				if (path[i] != key.path[j])
+					return false;
+			return true;
+		}
+	}
+
+	/**
+	 * find the splitters used at each level to get to a field, and the one
+	 * used to split the field itself
+	 * 
+	 * @param path
+	 *            the index of the field at each level, from the index
+	 *            <code>from</code>
+	 * @param from
+	 *            the first index of the path to use
+	 * @return the same splitters as <code>getPathSplitters</code>, followed
+	 *         by the splitter of the field, null if it is not split
+	 */
+	public FieldSplitter[] getFieldSplitters(int[] path, int from) {
+		pathProbe.set(path, from);
+		FieldSplitter[] result = fieldSplitters.get(pathProbe);
+		if (result == null) {
+			result = new FieldSplitter[path.length - from + 1];
+			StringBuffer subpath = new StringBuffer();
+			for (int i = from; i <= path.length; i++) {
+				result[i - from] = getSplitter(subpath.toString());
+				if (i < path.length) {
+					if (i > from)
+						subpath.append('.');
+					subpath.append(path[i]);
+				}
+			}
+			PathKey key = new PathKey();
+			int[] copy = new int[path.length - from];
+			System.arraycopy(path, from, copy, 0, copy.length);
+			key.set(copy, 0);
+			fieldSplitters.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * the fields of the current line, split only when they are first needed,
+	 * then kept until the next line is read
+	 */
+	private SplitField lineFields = null;
+
+	/**
+	 * a field of the current line, with its sub fields once split
+	 */
+	private static class SplitField {
+		private FieldSplitter splitter;
+
+		private String[] fields = null;
+
+		private SplitField[] subFields;
+
+		String[] split(String field, FieldSplitter splitter) {
+			if (fields == null || splitter != this.splitter) {
+				if (splitter == null) {
+					fields = new String[1];
+					fields[0] = field;
+				} else
+					fields = splitter.split(field);
+				this.splitter = splitter;
+				subFields = new SplitField[fields.length];
+			}
+			return fields;
+		}
+
+		SplitField getSubField(int index) {
+			if (subFields[index] == null)
+				subFields[index] = new SplitField();
+			return subFields[index];
+		}
+	}
+
+	/**
+	 * set current line in this Object and recursively in all lists
+	 */
+	public void setLine(String aLine) {
+		line = aLine;
+		lineFields = null;
+	}
+
+	public BufferedReader input;
+
+	/**
+	 * reader used for local files, mapped in memory. If null, the file is
+	 * read with <code>input</code>
+	 */
+	private MappedLineReader mappedInput = null;
+
+	public URL fileURL;
+
+	/**
+	 * Initialize the reader and the file. A local file already mapped in
+	 * memory is not read again, except if it has been modified.
+	 */
+	public void reload() throws FileMakersException, MalformedURLException,
+			IOException {
+		try {
+			if (fileURL != null) {
+				if (mappedInput != null && false == mappedInput.isModified())
+					mappedInput.restart();
+				else
+					open();
+			}
+			lineNumber = 0;
+		} catch (FileNotFoundException fe) {
+			throw new FileMakersException(
+					"[PSI makers: PSI maker] Flat File: unable to load file");
+		}
+	}
+
+	/**
+	 * load a flat file. The file is choosed by the user in an option panel
+	 */
+	public void load(URL url) throws FileNotFoundException,
+			NullPointerException, MalformedURLException, IOException {
+		lineNumber = 0;
+		this.fileURL = url;
+		open();
+		nextLine();
+	}
+
+	/**
+	 * open the file: local files are mapped in memory, other ones (e.g. on
+	 * http) are read as a stream
+	 */
+	private void open() throws IOException {
+		joinIndex = null;
+		if (mappedInput != null) {
+			mappedInput.close();
+			mappedInput = null;
+		}
+		if ("file".equals(fileURL.getProtocol())) {
+			File file;
+			try {
+				file = new File(fileURL.toURI());
+			} catch (URISyntaxException e) {
+				file = new File(fileURL.getPath());
+			} catch (IllegalArgumentException e) {
+				/* relative path */
+				file = new File(fileURL.getPath());
+			}
+			if (file.isFile()) {
+				try {
+					mappedInput = new MappedLineReader(file);
+					input = null;
+					return;
+				} catch (IOException e) {
+					log.debug("unable to map the file, read it as a stream: "
+							+ e);
+				}
+			}
+		}
+		this.input = new BufferedReader(new InputStreamReader((fileURL
+				.openStream())));
+	}
+
+	private String readLine() throws IOException {
+		String newLine;
+		if (mappedInput != null) {
+			long position = mappedInput.getPosition();
+			newLine = mappedInput.readLine();
+			bytesRead += mappedInput.getPosition() - position;
+		} else {
+			newLine = input.readLine();
+			if (newLine != null)
+				bytesRead += newLine.length() + 1;
+		}
+		if (newLine != null)
+			linesRead++;
+		return newLine;
+	}
+
+	public long getLinesRead() {
+		return linesRead;
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public void resetReadCounters() {
+		linesRead = 0;
+		bytesRead = 0;
+	}
+
+	/**
+	 * go to a line of the file and make it the current line. For local files,
+	 * a line already read is found directly, other files are read again from
+	 * the beginning.
+	 * 
+	 * @param lineNumber
+	 *            the number of the line, starting from 1 like
+	 *            <code>lineNumber</code>
+	 */
+	public void gotoLine(int lineNumber) throws FileMakersException,
+			IOException {
+		if (mappedInput != null && lineSeparator == null) {
+			if (mappedInput.seekLine(lineNumber - 1)) {
+				this.lineNumber = lineNumber - 1;
+				nextLine();
+			} else {
+				endOfFile = true;
+			}
+			return;
+		}
+		if (lineNumber <= this.lineNumber)
+			restartFile();
+		while (this.lineNumber < lineNumber && false == endOfFile)
+			nextLine();
+	}
+
+	/**
+	 * try to read a new line
+	 */
+	public void nextLine() {
+		if (input == null && mappedInput == null) {
+			endOfFile = true;
+			return;
+		}
+
+		if (lineSeparator == null) {
+			try {
+				String newLine = readLine();
+				if (newLine != null) {
+					setLine(newLine);
+					endOfFile = false;
+					lineNumber++;
+				} else {
+					endOfFile = true;
+				}
+			} catch (IOException e) {
+				System.out.println("nextline pb: " + e.toString());
+				endOfFile = true;
+			}
+		} else /* read until lineSeparator is found */{
+			String line = restOfPreviousLine;
+			StringBuffer newLine = new StringBuffer();
+			try {
+				while (line.indexOf(lineSeparator) < 0) {
+					newLine.append(line);
+					line = readLine();
+					lineNumber++;
+				}
+				newLine.append(line.substring(0, line.indexOf(lineSeparator)));
+				restOfPreviousLine = line.substring(line.indexOf(lineSeparator)
+						+ lineSeparator.length());
+
+				if (newLine != null) {
+					setLine(newLine.toString());
+					endOfFile = false;
+				} else {
+					endOfFile = true;
+				}
+
+			} catch (IOException e) {
+				if (newLine.length() != 0) {
+					setLine(newLine.toString());
+					endOfFile = true;
+				} else {
+					endOfFile = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * try to read a new line until one with selected field not empty is found
+	 */
+	public void nextLineWithField(String path) {
+		if (input == null && mappedInput == null)
+			return;
+
+		nextLine();
+		getElementAt(path, null);
+		while (getElementAt(path, null).length() == 0 && !endOfFile) {
+			nextLine();
+		}
+	}
+
+	/**
+	 * @return true if a line has been readed
+	 */
+	public boolean hasLine() {
+		// return line != null;
+		return !endOfFile;
+	}
+
+	/**
+	 * go back to the beginning of the file
+	 */
+	public void restartFile() throws FileMakersException, IOException {
+		reload();
+		nextLine();
+	}
+
+	/**
+	 * Return true if the first line of the file is used for titles. Used to
+	 * know wether or not to parse the first line.
+	 * 
+	 * @return true if the first line of the file is used for titles
+	 */
+	public boolean firstLineForTitles() {
+		return firstLineForTitles;
+	}
+
+	/**
+	 * 
+	 * @uml.property name="lineNumber"
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	public String getCurLine() {
+		return line;
+	}
+
+	public void save(XMLEncoder oos) {
+		oos.writeObject(new Boolean(firstLineForTitles));
+		oos.writeObject(lineSeparator);
+		oos.writeObject(lineSeparator);
+		oos.writeObject(separators);
+	}
+
+	public void load(XMLDecoder ois) {
+		firstLineForTitles = ((Boolean) ois.readObject()).booleanValue();
+		lineSeparator = (String) ois.readObject();
+		/** TODO: if file not found -> open a filechooser */
+		separators = (HashMap<String, String>) ois.readObject();
+		clearSplitters();
+		String filePath = (String) ois.readObject();
+	}
+
+	/**
+	 * @return Returns the endOfFile.
+	 */
+	public boolean isEndOfFile() {
+		return endOfFile;
+	}
+
+	/**
+	 * @param endOfFile
+	 *            The endOfFile to set.
+	 */
+	public void setEndOfFile(boolean endOfFile) {
+		this.endOfFile = endOfFile;
+	}
+
+	/**
+	 * @return Returns the index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @param index
+	 *            The index to set.
+	 */
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return Returns the indexI.
+	 */
+	public Integer getIndexI() {
+		return indexI;
+	}
+
+	/**
+	 * @param indexI
+	 *            The indexI to set.
+	 */
+	public void setIndexI(Integer indexI) {
+		this.indexI = indexI;
+	}
+
+	/**
+	 * @return Returns the lineSeparator.
+	 */
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	/**
+	 * @param lineSeparator
+	 *            The lineSeparator to set.
+	 */
+	public void setLineSeparator(String lineSeparator) {
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * @return Returns the restOfPreviousLine.
+	 */
+	public String getRestOfPreviousLine() {
+		return restOfPreviousLine;
+	}
+
+	/**
+	 * @param restOfPreviousLine
+	 *            The restOfPreviousLine to set.
+	 */
+	public void setRestOfPreviousLine(String restOfPreviousLine) {
+		this.restOfPreviousLine = restOfPreviousLine;
+	}
+
+	/**
+	 * @return Returns the separators.
+	 */
+	public HashMap<String, String> getSeparators() {
+		return separators;
+	}
+
+	/**
+	 * @param separators
+	 *            The separators to set.
+	 */
+	public void setSeparators(HashMap<String, String> separators) {
+		this.separators = separators;
+		clearSplitters();
+	}
+
+	/**
+	 * @return Returns the titleLine.
+	 */
+	public boolean isTitleLine() {
+		return firstLineForTitles;
+	}
+
+	/**
+	 * @param titleLine
+	 *            The titleLine to set.
+	 */
+	public void setTitleLine(boolean titleLine) {
+		this.firstLineForTitles = titleLine;
+	}
+
+	/**
+	 * @return Returns the line.
+	 */
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * @param lineNumber
+	 *            The lineNumber to set.
+	 */
+	public void setLineNumber(int lineNumber) {
+		this.lineNumber = lineNumber;
+	}
+
+	/**
+	 * @param firstLineForTitles
+	 *            The firstLineForTitles to set.
+	 */
+	public void setFirstLineForTitles(boolean firstLineForTitles) {
+		log.debug("title line: " + firstLineForTitles);
+		this.firstLineForTitles = firstLineForTitles;
+	}
 }
\ No newline at end of file
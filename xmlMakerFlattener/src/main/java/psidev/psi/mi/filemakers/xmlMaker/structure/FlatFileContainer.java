@@ -1,110 +1,206 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xmlMaker.structure;
-
-import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
-import java.util.ArrayList;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-/**
- * This class displayed a TabbedPane that contains the TabFiles
- * 
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- */
-public class FlatFileContainer {
-	 
-	private static final Log log = LogFactory
-     .getLog(FlatFileContainer.class);
-	
-	public ArrayList<FlatFile> flatFiles = new ArrayList<FlatFile>();
-
-	public String id = "just 4 testin";
-
-	public FlatFile getFlatFile(int index) {
-		return (FlatFile) flatFiles.get(index);
-	}
-
-	public void addFlatFile(FlatFile f) {
-		flatFiles.add(f);
-	}
-
-	public String getValue(String path, String modelPath) {
-		if (modelPath == null)
-			modelPath = path;
-		int tabNum = Integer.parseInt(path.substring(0, path.indexOf(".")));
-		return ((FlatFile) flatFiles.get(tabNum)).getElementAt(path
-				.substring(path.indexOf(".") + 1), modelPath.substring(path
-				.indexOf(".") + 1));
-	}
-
-	public String getSeparator(String path) {
-		int tabNum = Integer.parseInt(path.substring(0, path.indexOf(".")));
-		return ((FlatFile) flatFiles.get(tabNum)).getSeparator(path
-				.substring(path.indexOf(".") + 1));
-	}
-
-	public void save(XMLEncoder oos) {
-		oos.writeObject(flatFiles);
-	}
-
-	public void load(XMLDecoder ois) {
-		flatFiles = (ArrayList<FlatFile>) ois.readObject();
-	}
-
-	/**
-	 * @return Returns the flatFiles.
-	 */
-	public ArrayList<FlatFile> getFlatFiles() {
-		return flatFiles;
-	}
-
-	/**
-	 * @param flatFiles
-	 *            The flatFiles to set.
-	 */
-	public void setFlatFiles(ArrayList<FlatFile> flatFiles) {
-		this.flatFiles = flatFiles;
-	}
-
-	/**
-	 * @return Returns the id.
-	 */
-	public String getId() {
-		return id;
-	}
-
-	/**
-	 * @param id
-	 *            The id to set.
-	 */
-	public void setId(String id) {
-		this.id = id;
-	}
-
-	public int nbElements(String path) {
-		/* use the path filter */
-		try {
-			return (getValue(path, null).split(getSeparator(path))).length;
-		} catch (Exception e) {
-			log.info("separator not yet defined");
-			return 1;
-		}
-	}
-
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class displayed a TabbedPane that contains the TabFiles
+ * 
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class FlatFileContainer {
+	 
+	private static final Log log = LogFactory
+     .getLog(FlatFileContainer.class);
+	
+	public ArrayList<FlatFile> flatFiles = new ArrayList<FlatFile>();
+
+	public String id = "just 4 testin";
+
+	public FlatFile getFlatFile(int index) {
+		return (FlatFile) flatFiles.get(index);
+	}
+
+	public void addFlatFile(FlatFile f) {
+		flatFiles.add(f);
+	}
+
+	public String getValue(String path, String modelPath) {
+		if (modelPath == null)
+			modelPath = path;
+		int tabNum = Integer.parseInt(path.substring(0, path.indexOf(".")));
+		return ((FlatFile) flatFiles.get(tabNum)).getElementAt(path
+				.substring(path.indexOf(".") + 1), modelPath.substring(path
+				.indexOf(".") + 1));
+	}
+
+	/**
+	 * paths already converted to arrays of indexes
+	 */
+	private HashMap<String, int[]> compiledPaths = new HashMap<String, int[]>();
+
+	/**
+	 * arrays in which the paths shifted by an offset are computed, by length
+	 */
+	private int[][] shiftedPaths = new int[8][];
+
+	/**
+	 * convert a path like "0.3.1", i.e. the index of the flat file followed
+	 * by the indexes of the field, to an array of indexes
+	 */
+	public int[] compilePath(String path) {
+		int[] indexes = compiledPaths.get(path);
+		if (indexes == null) {
+			String[] paths = path.split("\\.");
+			indexes = new int[paths.length];
+			for (int i = 0; i < paths.length; i++)
+				indexes[i] = Integer.parseInt(paths[i]);
+			compiledPaths.put(path, indexes);
+		}
+		return indexes;
+	}
+
+	/**
+	 * @return the path with the offsets added to its first indexes. The array
+	 *         returned is reused by the next call.
+	 */
+	private int[] shift(int[] path, int[] offsets) {
+		if (path.length >= shiftedPaths.length) {
+			int[][] newShiftedPaths = new int[path.length + 1][];
+			System.arraycopy(shiftedPaths, 0, newShiftedPaths, 0,
+					shiftedPaths.length);
+			shiftedPaths = newShiftedPaths;
+		}
+		int[] shifted = shiftedPaths[path.length];
+		if (shifted == null) {
+			shifted = new int[path.length];
+			shiftedPaths[path.length] = shifted;
+		}
+		for (int i = 0; i < path.length; i++)
+			shifted[i] = i < offsets.length ? path[i] + offsets[i] : path[i];
+		return shifted;
+	}
+
+	/**
+	 * get the value of a field in the current line of a flat file
+	 * 
+	 * @param path
+	 *            the index of the flat file followed by the indexes of the
+	 *            field, as returned by <code>compilePath</code>
+	 * @param offsets
+	 *            the offsets to add to the first indexes of the path, or null.
+	 *            The separators are still the ones of the path without
+	 *            offsets.
+	 * @return the value of the field, an empty String if it does not exist
+	 */
+	public String getValue(int[] path, int[] offsets) {
+		int[] fieldPath = offsets == null ? path : shift(path, offsets);
+		FlatFile flatFile = getFlatFile(fieldPath[0]);
+		return flatFile.getElementAt(fieldPath, 1, flatFile.getFieldSplitters(
+				path, 1));
+	}
+
+	public String getSeparator(String path) {
+		int tabNum = Integer.parseInt(path.substring(0, path.indexOf(".")));
+		return ((FlatFile) flatFiles.get(tabNum)).getSeparator(path
+				.substring(path.indexOf(".") + 1));
+	}
+
+	public void save(XMLEncoder oos) {
+		oos.writeObject(flatFiles);
+	}
+
+	public void load(XMLDecoder ois) {
+		flatFiles = (ArrayList<FlatFile>) ois.readObject();
+	}
+
+	/**
+	 * @return Returns the flatFiles.
+	 */
+	public ArrayList<FlatFile> getFlatFiles() {
+		return flatFiles;
+	}
+
+	/**
+	 * @param flatFiles
+	 *            The flatFiles to set.
+	 */
+	public void setFlatFiles(ArrayList<FlatFile> flatFiles) {
+		this.flatFiles = flatFiles;
+	}
+
+	/**
+	 * @return Returns the id.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @param id
+	 *            The id to set.
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public int nbElements(String path) {
+		try {
+			return nbElements(compilePath(path), null);
+		} catch (NumberFormatException e) {
+			log.info("separator not yet defined");
+			return 1;
+		}
+	}
+
+	/**
+	 * count the elements of a field in the current line of a flat file, i.e.
+	 * its sub fields. They are counted while the field is split, and the
+	 * split field is kept for reading the values of the elements.
+	 * 
+	 * @param path
+	 *            the index of the flat file followed by the indexes of the
+	 *            field, as returned by <code>compilePath</code>
+	 * @param offsets
+	 *            the offsets to add to the first indexes of the path, or null.
+	 *            The separators are the ones of the path with offsets.
+	 * @return the number of elements, 1 if the field is not split
+	 */
+	public int nbElements(int[] path, int[] offsets) {
+		try {
+			if (offsets != null)
+				path = shift(path, offsets);
+			FlatFile flatFile = getFlatFile(path[0]);
+			FieldSplitter[] splitters = flatFile.getFieldSplitters(path, 1);
+			if (splitters[splitters.length - 1] == null) {
+				log.info("separator not yet defined");
+				return 1;
+			}
+			return flatFile.countElements(path, 1, splitters);
+		} catch (RuntimeException e) {
+			log.info("separator not yet defined");
+			return 1;
+		}
+	}
+
 }
\ No newline at end of file
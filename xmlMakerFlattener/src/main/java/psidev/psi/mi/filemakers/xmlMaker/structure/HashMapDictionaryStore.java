@@ -0,0 +1,95 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Dictionary kept in a HashMap, which value is the list of the definitions
+ * of the word, each one followed by a space.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class HashMapDictionaryStore implements DictionaryStore {
+
+	private HashMap<String, ArrayList<String>> dictionnary;
+
+	public HashMapDictionaryStore(
+			HashMap<String, ArrayList<String>> dictionnary) {
+		this.dictionnary = dictionnary;
+	}
+
+	public void put(String value, String[] definitions) {
+		ArrayList<String> list = new ArrayList<String>();
+		for (int i = 0; i < definitions.length; i++) {
+			list.add(definitions[i] + " ");
+		}
+		dictionnary.put(value, list);
+	}
+
+	public String getDefinition(String value, int definitionNumber) {
+		ArrayList<String> definitions = dictionnary.get(value);
+		if (definitions == null || definitionNumber < 1
+				|| definitionNumber > definitions.size())
+			return null;
+		return definitions.get(definitionNumber - 1);
+	}
+
+	public int size() {
+		return dictionnary.size();
+	}
+
+	public long getMemoryUsage() {
+		long usage = 48 + 4L * dictionnary.size() * 4 / 3;
+		for (String value : dictionnary.keySet()) {
+			ArrayList<String> definitions = dictionnary.get(value);
+			usage += 32 + getStringSize(value.length()) + 24 + 16 + 4
+					* Math.max(10, definitions.size());
+			for (String definition : definitions)
+				usage += getStringSize(definition.length());
+		}
+		return usage;
+	}
+
+	/**
+	 * estimation of the memory used by an entry of a HashMap store
+	 *
+	 * @param value
+	 *            the word
+	 * @param definitions
+	 *            its definitions, without the trailing space
+	 * @return the size in bytes
+	 */
+	public static long getEntrySize(String value, String[] definitions) {
+		long size = 32 + 5 + getStringSize(value.length()) + 24 + 16 + 4
+				* Math.max(10, definitions.length);
+		for (int i = 0; i < definitions.length; i++)
+			size += getStringSize(definitions[i].length() + 1);
+		return size;
+	}
+
+	/**
+	 * approximate size of a String: object, array header and characters
+	 */
+	private static long getStringSize(int length) {
+		return 24 + 16 + 2L * length;
+	}
+
+	public HashMap<String, ArrayList<String>> getDictionnary() {
+		return dictionnary;
+	}
+}
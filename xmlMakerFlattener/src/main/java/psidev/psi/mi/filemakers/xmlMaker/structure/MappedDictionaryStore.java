@@ -0,0 +1,122 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Dictionary read from a snapshot file mapped in memory. The snapshot is
+ * never read entirely: only the pages containing the slots and entries
+ * needed by a lookup are loaded by the system. The dictionary cannot be
+ * modified.
+ *
+ * A snapshot contains a header (see <code>Dictionary.saveSnapshot</code>),
+ * followed by the table and the entries written by a
+ * CompactDictionaryStore.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class MappedDictionaryStore extends PackedDictionaryStore {
+
+	/**
+	 * the largest snapshot that can be mapped, as a single buffer addressed
+	 * with int positions
+	 */
+	public final static long MAX_LENGTH = Integer.MAX_VALUE;
+
+	private MappedByteBuffer buffer;
+
+	private int size;
+
+	private int capacity;
+
+	private int hashesPosition;
+
+	private int offsetsPosition;
+
+	private int entriesPosition;
+
+	private long fileLength;
+
+	/**
+	 * @param file
+	 *            the snapshot
+	 * @param tablePosition
+	 *            the position of the table in the file, after the header
+	 */
+	public MappedDictionaryStore(File file, int tablePosition)
+			throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			fileLength = channel.size();
+			if (fileLength > MAX_LENGTH)
+				throw new IOException("dictionary snapshot too large to be mapped: "
+						+ file.getPath());
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					fileLength);
+		} finally {
+			/* the mapping stays valid once the file is closed */
+			randomAccessFile.close();
+		}
+		size = buffer.getInt(tablePosition);
+		capacity = buffer.getInt(tablePosition + 4);
+		int entriesLength = buffer.getInt(tablePosition + 8);
+		hashesPosition = tablePosition + 12;
+		offsetsPosition = hashesPosition + 4 * capacity;
+		entriesPosition = offsetsPosition + 4 * capacity;
+		if (entriesPosition + (long) entriesLength != fileLength)
+			throw new IOException("corrupted dictionary snapshot: "
+					+ file.getPath());
+	}
+
+	protected byte byteAt(int position) {
+		return buffer.get(entriesPosition + position);
+	}
+
+	protected int hashAt(int slot) {
+		return buffer.getInt(hashesPosition + 4 * slot);
+	}
+
+	protected int offsetAt(int slot) {
+		return buffer.getInt(offsetsPosition + 4 * slot);
+	}
+
+	protected int getCapacity() {
+		return capacity;
+	}
+
+	public void put(String value, String[] definitions) {
+		throw new UnsupportedOperationException(
+				"a dictionary snapshot cannot be modified");
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the size of the snapshot. It is mapped in memory, but not kept
+	 *         in the heap
+	 */
+	public long getMemoryUsage() {
+		return fileLength;
+	}
+}
@@ -0,0 +1,257 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Read the lines of a local file mapped in memory. The position of the
+ * beginning of each line is kept the first time the line is read, so that the
+ * reader can go back to the beginning of the file, or to any line already
+ * read, without reading the file again.
+ *
+ * The lines are read like with <code>BufferedReader.readLine()</code>: a
+ * line ends with '\n', '\r' or "\r\n". The file has to be in a charset in
+ * which these characters are coded on one byte, like the default charset of
+ * most systems.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class MappedLineReader {
+
+	/**
+	 * size of the parts of the file mapped in memory
+	 */
+	private final static int SEGMENT_SHIFT = 30;
+
+	private final static long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+	private final static int SEGMENT_MASK = (int) (SEGMENT_SIZE - 1);
+
+	private File file;
+
+	private RandomAccessFile randomAccessFile;
+
+	private MappedByteBuffer[] segments;
+
+	private long size;
+
+	private long lastModified;
+
+	private String charsetName;
+
+	/**
+	 * position of the next byte to read
+	 */
+	private long position = 0;
+
+	/**
+	 * index of the next line to read
+	 */
+	private int currentLine = 0;
+
+	/**
+	 * position of the beginning of each line already found
+	 */
+	private long[] lineOffsets = new long[1024];
+
+	/**
+	 * number of lines which beginning is known
+	 */
+	private int indexedLines = 1;
+
+	/**
+	 * true once the end of the file has been found, i.e. once all lines are
+	 * indexed
+	 */
+	private boolean fullyIndexed = false;
+
+	private byte[] lineBuffer = new byte[256];
+
+	/**
+	 * map a file in memory
+	 *
+	 * @param file
+	 *            the file
+	 * @param charsetName
+	 *            the charset used to decode the lines
+	 * @throws IOException
+	 *             if the file cannot be mapped or if the charset is not
+	 *             compatible
+	 */
+	public MappedLineReader(File file, String charsetName) throws IOException {
+		if (false == isCompatible(charsetName))
+			throw new IOException("charset not compatible: " + charsetName);
+		this.file = file;
+		this.charsetName = charsetName;
+		this.lastModified = file.lastModified();
+		randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			size = channel.size();
+			int nbSegments = (int) ((size + SEGMENT_SIZE - 1) >> SEGMENT_SHIFT);
+			segments = new MappedByteBuffer[nbSegments];
+			for (int i = 0; i < nbSegments; i++) {
+				long start = (long) i << SEGMENT_SHIFT;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(SEGMENT_SIZE, size - start));
+			}
+		} catch (IOException e) {
+			randomAccessFile.close();
+			throw e;
+		}
+		lineOffsets[0] = 0;
+	}
+
+	/**
+	 * map a file in memory, using the default charset
+	 */
+	public MappedLineReader(File file) throws IOException {
+		this(file, Charset.defaultCharset().name());
+	}
+
+	/**
+	 * @return true if the end of lines are coded on one byte, as in ASCII
+	 */
+	private static boolean isCompatible(String charsetName) {
+		try {
+			byte[] bytes = "\r\n".getBytes(charsetName);
+			return bytes.length == 2 && bytes[0] == '\r' && bytes[1] == '\n';
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private byte getByte(long index) {
+		return segments[(int) (index >> SEGMENT_SHIFT)]
+				.get((int) index & SEGMENT_MASK);
+	}
+
+	/**
+	 * read the next line
+	 *
+	 * @return the line, without the end of line characters, or null if the
+	 *         end of the file has been reached
+	 */
+	public String readLine() throws IOException {
+		if (position >= size) {
+			fullyIndexed = true;
+			return null;
+		}
+
+		long start = position;
+		long end = start;
+		byte b = 0;
+		while (end < size) {
+			b = getByte(end);
+			if (b == '\n' || b == '\r')
+				break;
+			end++;
+		}
+
+		long next = end;
+		if (end < size) {
+			next++;
+			if (b == '\r' && next < size && getByte(next) == '\n')
+				next++;
+		}
+
+		int length = (int) (end - start);
+		if (lineBuffer.length < length)
+			lineBuffer = new byte[Math.max(length, lineBuffer.length * 2)];
+		for (int i = 0; i < length; i++)
+			lineBuffer[i] = getByte(start + i);
+
+		position = next;
+		currentLine++;
+		if (currentLine == indexedLines && false == fullyIndexed)
+			addLineOffset(next);
+
+		return new String(lineBuffer, 0, length, charsetName);
+	}
+
+	private void addLineOffset(long offset) {
+		if (indexedLines == lineOffsets.length) {
+			long[] newOffsets = new long[lineOffsets.length * 2];
+			System.arraycopy(lineOffsets, 0, newOffsets, 0, indexedLines);
+			lineOffsets = newOffsets;
+		}
+		lineOffsets[indexedLines++] = offset;
+	}
+
+	/**
+	 * go back to the beginning of the file
+	 */
+	public void restart() {
+		position = 0;
+		currentLine = 0;
+	}
+
+	/**
+	 * go to a line, so that it will be returned by the next call to
+	 * <code>readLine()</code>
+	 *
+	 * @param line
+	 *            the index of the line, starting from 0
+	 * @return false if the file does not contain so many lines
+	 */
+	public boolean seekLine(int line) throws IOException {
+		if (line < indexedLines) {
+			position = lineOffsets[line];
+			currentLine = line;
+			return position < size;
+		}
+		position = lineOffsets[indexedLines - 1];
+		currentLine = indexedLines - 1;
+		while (currentLine < line) {
+			if (readLine() == null)
+				return false;
+		}
+		return position < size;
+	}
+
+	/**
+	 * @return the position of the next byte to read
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return the index of the next line to read
+	 */
+	public int getCurrentLine() {
+		return currentLine;
+	}
+
+	/**
+	 * @return true if the file has been modified since it has been mapped
+	 */
+	public boolean isModified() {
+		return file.lastModified() != lastModified || file.length() != size;
+	}
+
+	public void close() throws IOException {
+		segments = new MappedByteBuffer[0];
+		size = 0;
+		randomAccessFile.close();
+	}
+}
@@ -0,0 +1,418 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import org.exolab.castor.xml.schema.Annotated;
+import org.exolab.castor.xml.schema.Structure;
+
+import psidev.psi.mi.filemakers.xsd.MessageManagerInt;
+import psidev.psi.mi.filemakers.xsd.ValueFilter;
+import psidev.psi.mi.filemakers.xsd.XsdNode;
+
+/**
+ * The mapping of a tree compiled for the marshalling. The tree is walked only
+ * once, and everything that does not depend on the content of the flat files
+ * (the elements used, their tags and attributes, the origin of their values
+ * and the number of occurrences allowed) is kept in arrays, so that the
+ * elements can be written for each line of a flat file without looking into
+ * the tree and the associations again.
+ *
+ * Each element or attribute marshalled is identified by its index in the
+ * arrays. The plan is never modified once created: if the mapping changes, a
+ * new plan has to be compiled.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class MarshallingPlan {
+
+	/**
+	 * no value associated to the node
+	 */
+	public final static int VALUE_NONE = 0;
+
+	/**
+	 * value taken in a field of a flat file
+	 */
+	public final static int VALUE_FIELD = 1;
+
+	/**
+	 * value automatically generated
+	 */
+	public final static int VALUE_AUTOGENERATED = 2;
+
+	/**
+	 * default value
+	 */
+	public final static int VALUE_DEFAULT = 3;
+
+	public final static int DICTIONARY_NONE = 0;
+
+	public final static int DICTIONARY_OPEN = 1;
+
+	public final static int DICTIONARY_CLOSED = 2;
+
+	/**
+	 * sub element marshalled once
+	 */
+	public final static int CHILD_ELEMENT = 0;
+
+	/**
+	 * sub element duplicated for each value of a field
+	 */
+	public final static int CHILD_DUPLICABLE = 1;
+
+	/**
+	 * sub element marshalled for each line of a flat file
+	 */
+	public final static int CHILD_FLAT_FILE = 2;
+
+	/**
+	 * maximum number of occurrences for an unbounded element
+	 */
+	public final static int UNBOUNDED = Integer.MAX_VALUE;
+
+	/**
+	 * the node for which the plan has been compiled
+	 */
+	public final XsdNode rootNode;
+
+	/**
+	 * index of the root element, -1 if it is not used
+	 */
+	public final int root;
+
+	/* elements and attributes */
+
+	public final XsdNode[] nodes;
+
+	public final int[] valueKinds;
+
+	public final String[] fieldPaths;
+
+	/**
+	 * the paths of the fields, as arrays of indexes
+	 */
+	public final int[][] compiledFieldPaths;
+
+	/**
+	 * true if the path filter of the duplicated elements has to be applied to
+	 * the field
+	 */
+	public final boolean[] filteredFields;
+
+	/**
+	 * the regular expressions the values have to match, compiled
+	 */
+	public final ValueFilter[] validationFilters;
+
+	public final int[] dictionaryKinds;
+
+	public final int[] dictionaries;
+
+	public final int[] dictionaryColumns;
+
+	/**
+	 * default values, with special characters already replaced
+	 */
+	public final String[] defaultValues;
+
+	/**
+	 * for attributes, if the attribute is required
+	 */
+	public final boolean[] required;
+
+	/**
+	 * for attributes, the XML code preceding the value: ' name="'
+	 */
+	public final String[] attributePrefixes;
+
+	/**
+	 * for duplicable elements, the field which values are used to duplicate
+	 * the element
+	 */
+	public final String[] duplicablePaths;
+
+	/**
+	 * the paths of the fields used to duplicate the elements, as arrays of
+	 * indexes
+	 */
+	public final int[][] compiledDuplicablePaths;
+
+	/* elements */
+
+	/**
+	 * beginning of the opening tag, without attributes: '\n&lt;name'
+	 */
+	public final String[] openTags;
+
+	public final String[] closeTags;
+
+	/**
+	 * new line and indentation of the element
+	 */
+	public final String[] indentations;
+
+	/**
+	 * attributes that do not depend on the data, e.g. the schema location for
+	 * the root element
+	 */
+	public final String[] fixedAttributes;
+
+	public final int[][] attributes;
+
+	public final int[][] children;
+
+	public final int[][] childKinds;
+
+	/**
+	 * for each child, the index of the counter of occurrences of its name
+	 */
+	public final int[][] childSlots;
+
+	/**
+	 * for children associated to a flat file, the index of the flat file
+	 */
+	public final int[][] childFlatFiles;
+
+	/**
+	 * true if the path filter has to be applied to the fields of the
+	 * duplicable children
+	 */
+	public final boolean[] filteredDuplications;
+
+	public final String[][] slotNames;
+
+	public final int[][] minOccurs;
+
+	public final int[][] maxOccurs;
+
+	private int nextIndex = 0;
+
+	/**
+	 * compile the mapping of the node and its sub elements
+	 *
+	 * @param tree
+	 *            the tree containing the node and the associations
+	 * @param node
+	 *            the element to marshall
+	 */
+	public MarshallingPlan(XsdTreeStructImpl tree, XsdNode node) {
+		rootNode = node;
+		int size = node.isUsed() ? countNodes(tree, node) : 0;
+
+		nodes = new XsdNode[size];
+		valueKinds = new int[size];
+		fieldPaths = new String[size];
+		compiledFieldPaths = new int[size][];
+		filteredFields = new boolean[size];
+		validationFilters = new ValueFilter[size];
+		dictionaryKinds = new int[size];
+		dictionaries = new int[size];
+		dictionaryColumns = new int[size];
+		defaultValues = new String[size];
+		required = new boolean[size];
+		attributePrefixes = new String[size];
+		duplicablePaths = new String[size];
+		compiledDuplicablePaths = new int[size][];
+		openTags = new String[size];
+		closeTags = new String[size];
+		indentations = new String[size];
+		fixedAttributes = new String[size];
+		attributes = new int[size][];
+		children = new int[size][];
+		childKinds = new int[size][];
+		childSlots = new int[size][];
+		childFlatFiles = new int[size][];
+		filteredDuplications = new boolean[size];
+		slotNames = new String[size][];
+		minOccurs = new int[size][];
+		maxOccurs = new int[size][];
+
+		if (size > 0)
+			root = compileElement(tree, node, "");
+		else
+			root = -1;
+	}
+
+	/**
+	 * count the elements and attributes that will be compiled
+	 */
+	private int countNodes(XsdTreeStructImpl tree, XsdNode node) {
+		int count = 1;
+		Iterator<XsdNode> it = tree.getNodeChildren(node);
+		while (it.hasNext()) {
+			XsdNode child = it.next();
+			switch (((Annotated) child.getUserObject()).getStructureType()) {
+			case Structure.ATTRIBUTE:
+				count++;
+				break;
+			case Structure.ELEMENT:
+				if (child.isUsed())
+					count += countNodes(tree, child);
+				break;
+			}
+		}
+		return count;
+	}
+
+	private int compileElement(XsdTreeStructImpl tree, XsdNode node,
+			String indentation) {
+		int element = nextIndex++;
+		compileValue(tree, node, element);
+
+		ArrayList<XsdNode> attributeList = new ArrayList<XsdNode>();
+		ArrayList<XsdNode> elementList = new ArrayList<XsdNode>();
+
+		Iterator<XsdNode> it = tree.getNodeChildren(node);
+		while (it.hasNext()) {
+			XsdNode child = it.next();
+			switch (((Annotated) child.getUserObject()).getStructureType()) {
+			case Structure.ATTRIBUTE:
+				attributeList.add(child);
+				break;
+			case Structure.ELEMENT:
+				if (child.isUsed())
+					elementList.add(child);
+				break;
+			case Structure.GROUP:
+				tree.getMessageManager().sendMessage(
+						"should not be any group...." + child,
+						MessageManagerInt.warningMessage);
+				break;
+			}
+		}
+
+		openTags[element] = "\n" + indentation + "<" + node.toString();
+		closeTags[element] = "</" + node.toString() + ">";
+		indentations[element] = "\n" + indentation;
+		fixedAttributes[element] = tree.getAttributes(node,
+				new ArrayList<String>());
+		filteredDuplications[element] = false == tree.unduplicableNodes
+				.contains(node);
+
+		attributes[element] = new int[attributeList.size()];
+		for (int i = 0; i < attributeList.size(); i++) {
+			XsdNode attribute = attributeList.get(i);
+			int index = nextIndex++;
+			compileValue(tree, attribute, index);
+			required[index] = attribute.isRequired;
+			attributePrefixes[index] = " " + attribute.getName() + "=\"";
+			attributes[element][i] = index;
+		}
+
+		int nbChildren = elementList.size();
+		children[element] = new int[nbChildren];
+		childKinds[element] = new int[nbChildren];
+		childSlots[element] = new int[nbChildren];
+		childFlatFiles[element] = new int[nbChildren];
+
+		ArrayList<String> names = new ArrayList<String>();
+		ArrayList<Integer> mins = new ArrayList<Integer>();
+		ArrayList<Integer> maxs = new ArrayList<Integer>();
+
+		for (int i = 0; i < nbChildren; i++) {
+			XsdNode child = elementList.get(i);
+
+			/* elements with the same name share the same counter */
+			int slot = names.indexOf(child.toString());
+			if (slot < 0) {
+				slot = names.size();
+				names.add(child.toString());
+				mins.add(new Integer(child.min));
+				maxs.add(new Integer(child.max != -1 ? child.max : UNBOUNDED));
+			}
+			childSlots[element][i] = slot;
+
+			if (tree.associatedDuplicableFields.get(child) != null) {
+				childKinds[element][i] = CHILD_DUPLICABLE;
+			} else if (tree.associatedFlatFiles.contains(child)) {
+				childKinds[element][i] = CHILD_FLAT_FILE;
+				childFlatFiles[element][i] = tree.associatedFlatFiles
+						.indexOf(child);
+			} else {
+				childKinds[element][i] = CHILD_ELEMENT;
+			}
+
+			int index = compileElement(tree, child, indentation + "\t");
+			duplicablePaths[index] = tree.associatedDuplicableFields
+					.get(child);
+			if (duplicablePaths[index] != null)
+				compiledDuplicablePaths[index] = tree.flatFiles
+						.compilePath(duplicablePaths[index]);
+			children[element][i] = index;
+		}
+
+		slotNames[element] = names.toArray(new String[names.size()]);
+		minOccurs[element] = new int[names.size()];
+		maxOccurs[element] = new int[names.size()];
+		for (int i = 0; i < names.size(); i++) {
+			minOccurs[element][i] = mins.get(i).intValue();
+			maxOccurs[element][i] = maxs.get(i).intValue();
+		}
+
+		return element;
+	}
+
+	/**
+	 * find where the value of the node comes from
+	 */
+	private void compileValue(XsdTreeStructImpl tree, XsdNode node, int index) {
+		nodes[index] = node;
+		dictionaryKinds[index] = DICTIONARY_NONE;
+
+		if (tree.isAffected(node)) {
+			valueKinds[index] = VALUE_FIELD;
+			fieldPaths[index] = tree.associatedFields.get(node);
+			compiledFieldPaths[index] = tree.flatFiles
+					.compilePath(fieldPaths[index]);
+			filteredFields[index] = false == tree.unduplicableNodes
+					.contains(node);
+			validationFilters[index] = ValueFilter.compile(tree.validationRegexps
+					.get(node));
+			if (tree.associatedClosedDictionary.containsKey(node)) {
+				dictionaryKinds[index] = DICTIONARY_CLOSED;
+				dictionaries[index] = tree.associatedClosedDictionary.get(node)
+						.intValue();
+				dictionaryColumns[index] = tree.associatedDictionaryColumn
+						.get(node).intValue();
+			} else if (tree.associatedOpenDictionary.containsKey(node)) {
+				dictionaryKinds[index] = DICTIONARY_OPEN;
+				dictionaries[index] = tree.associatedOpenDictionary.get(node)
+						.intValue();
+				dictionaryColumns[index] = tree.associatedDictionaryColumn
+						.get(node).intValue();
+			}
+		} else if (tree.associatedAutogeneration.contains(node)) {
+			valueKinds[index] = VALUE_AUTOGENERATED;
+		} else if (tree.hasDefaultValue(node)) {
+			valueKinds[index] = VALUE_DEFAULT;
+			defaultValues[index] = tree.getXmlValue(tree.associatedValues
+					.get(node));
+		} else {
+			valueKinds[index] = VALUE_NONE;
+		}
+	}
+
+	/**
+	 * @return the number of elements and attributes in the plan
+	 */
+	public int size() {
+		return nodes.length;
+	}
+}
@@ -0,0 +1,206 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import psidev.psi.mi.filemakers.xsd.Utils;
+
+/**
+ * Progress of the marshalling, for each flat file: number of records
+ * marshalled, of lines and bytes read and of bytes written while the
+ * records of the file were marshalled.
+ *
+ * The counters are only updated by the marshalling thread, once for each
+ * record, and nobody is notified: other threads (the GUI, a logger) read
+ * them when they want to display the progress.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class MarshallingProgress {
+
+	private volatile String[] flatFileNames = new String[0];
+
+	private volatile AtomicLongArray records = new AtomicLongArray(0);
+
+	private volatile AtomicLongArray lines = new AtomicLongArray(0);
+
+	private volatile AtomicLongArray bytesRead = new AtomicLongArray(0);
+
+	private volatile AtomicLongArray bytesWritten = new AtomicLongArray(0);
+
+	/**
+	 * index of the flat file being marshalled, -1 outside of the flat files
+	 */
+	private volatile int currentFlatFile = -1;
+
+	private volatile boolean running = false;
+
+	private volatile long startTime = 0;
+
+	/**
+	 * set all counters to 0 before a new marshalling
+	 *
+	 * @param flatFiles
+	 *            the flat files that will be marshalled
+	 */
+	public void start(FlatFileContainer flatFiles) {
+		int nbFlatFiles = flatFiles.getFlatFiles().size();
+		String[] names = new String[nbFlatFiles];
+		for (int i = 0; i < nbFlatFiles; i++) {
+			FlatFile flatFile = flatFiles.getFlatFile(i);
+			flatFile.resetReadCounters();
+			names[i] = flatFile.fileURL == null ? "flat file " + i : Utils
+					.getFileName(flatFile.fileURL.getFile());
+		}
+		records = new AtomicLongArray(nbFlatFiles);
+		lines = new AtomicLongArray(nbFlatFiles);
+		bytesRead = new AtomicLongArray(nbFlatFiles);
+		bytesWritten = new AtomicLongArray(nbFlatFiles);
+		currentFlatFile = -1;
+		startTime = System.currentTimeMillis();
+		flatFileNames = names;
+		running = true;
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * @return true while the marshalling is in progress
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * a record of a flat file has been marshalled
+	 *
+	 * @param flatFile
+	 *            the index of the flat file
+	 * @param file
+	 *            the flat file, from which the number of lines and bytes read
+	 *            are taken
+	 */
+	public void recordDone(int flatFile, FlatFile file) {
+		if (flatFile >= records.length())
+			return;
+		records.incrementAndGet(flatFile);
+		lines.set(flatFile, file.getLinesRead());
+		bytesRead.set(flatFile, file.getBytesRead());
+	}
+
+	/**
+	 * bytes written in the output. They are attributed to the flat file being
+	 * marshalled.
+	 */
+	public void addBytesWritten(long nbBytes) {
+		int flatFile = currentFlatFile;
+		if (flatFile >= 0 && flatFile < bytesWritten.length())
+			bytesWritten.addAndGet(flatFile, nbBytes);
+	}
+
+	public int getCurrentFlatFile() {
+		return currentFlatFile;
+	}
+
+	public void setCurrentFlatFile(int currentFlatFile) {
+		this.currentFlatFile = currentFlatFile;
+	}
+
+	public int getNbFlatFiles() {
+		return flatFileNames.length;
+	}
+
+	public String getFlatFileName(int flatFile) {
+		return flatFileNames[flatFile];
+	}
+
+	public long getRecords(int flatFile) {
+		return records.get(flatFile);
+	}
+
+	public long getLines(int flatFile) {
+		return lines.get(flatFile);
+	}
+
+	/**
+	 * @return the bytes read in the flat file, or the characters read if the
+	 *         file is not a local file
+	 */
+	public long getBytesRead(int flatFile) {
+		return bytesRead.get(flatFile);
+	}
+
+	public long getBytesWritten(int flatFile) {
+		return bytesWritten.get(flatFile);
+	}
+
+	/**
+	 * @return the time since the beginning of the marshalling, in
+	 *         milliseconds
+	 */
+	public long getElapsedTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	/**
+	 * @return a description of the progress for a flat file
+	 */
+	public String toString(int flatFile) {
+		return getFlatFileName(flatFile) + ": " + getRecords(flatFile)
+				+ " records, " + getLines(flatFile) + " lines, "
+				+ getBytesRead(flatFile) / 1024 + " KB read, "
+				+ getBytesWritten(flatFile) / 1024 + " KB written";
+	}
+
+	/**
+	 * @return a description of the progress for the flat file being
+	 *         marshalled
+	 */
+	public String toString() {
+		int flatFile = currentFlatFile;
+		if (flatFile < 0 || flatFile >= getNbFlatFiles())
+			return "";
+		return toString(flatFile);
+	}
+
+	/**
+	 * Stream that counts the bytes written in it. The bytes are counted when
+	 * the writers above it flush their buffers, not for each line.
+	 */
+	public class CountingOutputStream extends FilterOutputStream {
+
+		public CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			addBytesWritten(len);
+		}
+
+		public void write(int b) throws IOException {
+			out.write(b);
+			addBytesWritten(1);
+		}
+	}
+}
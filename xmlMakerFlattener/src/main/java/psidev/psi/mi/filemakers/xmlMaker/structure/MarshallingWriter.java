@@ -0,0 +1,362 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer used by the maker to stream the XML document. The opening tag of an
+ * element is kept pending until some content is written inside it: if the
+ * element is closed before, nothing is written and the element can be
+ * considered as empty.
+ *
+ * The XML code of each element is kept in a buffer until the element is
+ * ended, so that an element that does not respect the schema can still be
+ * removed from the output. There is one buffer for each level of the tree,
+ * and the buffers are reused from an element to the next one. If the total
+ * size of the buffers exceeds the limit, the outermost elements are written
+ * and can not be removed anymore.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public class MarshallingWriter extends Writer {
+
+	/**
+	 * default maximum number of characters kept in the buffers
+	 */
+	public final static int DEFAULT_BUFFER_LIMIT = 4 * 1024 * 1024;
+
+	private final static int INITIAL_BUFFER_SIZE = 256;
+
+	private Writer out;
+
+	private int bufferLimit;
+
+	/**
+	 * opening tags of the elements currently marshalled
+	 */
+	private String[] openTags = new String[16];
+
+	/**
+	 * the XML code of each element not yet written
+	 */
+	private char[][] buffers = new char[16][];
+
+	private int[] lengths = new int[16];
+
+	/**
+	 * number of elements currently marshalled
+	 */
+	private int depth = 0;
+
+	/**
+	 * number of tags of the stack that have already been written
+	 */
+	private int writtenTags = 0;
+
+	/**
+	 * number of elements, from the outermost one, which beginning has already
+	 * been written in the output and that can not be removed anymore
+	 */
+	private int flushedElements = 0;
+
+	private long bufferedChars = 0;
+
+	private long peakBufferedChars = 0;
+
+	/**
+	 * where to note the flat file line of the output lines, null if it is not
+	 * needed
+	 */
+	private OutputLineMap lineMap = null;
+
+	/**
+	 * output line of the next character written in the document, the
+	 * characters of the elements kept in the buffers included
+	 */
+	private int outputLine = 0;
+
+	private int flatLine = 0;
+
+	/**
+	 * true if the flat file line has changed and has to be noted with the
+	 * next XML code written
+	 */
+	private boolean markPending = false;
+
+	public MarshallingWriter(Writer out) {
+		this(out, DEFAULT_BUFFER_LIMIT);
+	}
+
+	/**
+	 * @param out
+	 *            the writer where to write the XML code
+	 * @param bufferLimit
+	 *            maximum number of characters kept in the buffers
+	 */
+	public MarshallingWriter(Writer out, int bufferLimit) {
+		this.out = out;
+		this.bufferLimit = bufferLimit;
+	}
+
+	/**
+	 * start a new element. The opening tag will only be written with the
+	 * first content of the element.
+	 *
+	 * @param openTag
+	 *            the XML code to open the element
+	 */
+	public void startElement(String openTag) {
+		if (depth == openTags.length) {
+			int size = depth * 2;
+			String[] newTags = new String[size];
+			System.arraycopy(openTags, 0, newTags, 0, depth);
+			openTags = newTags;
+			char[][] newBuffers = new char[size][];
+			System.arraycopy(buffers, 0, newBuffers, 0, depth);
+			buffers = newBuffers;
+			int[] newLengths = new int[size];
+			System.arraycopy(lengths, 0, newLengths, 0, depth);
+			lengths = newLengths;
+		}
+		openTags[depth] = openTag;
+		lengths[depth] = 0;
+		depth++;
+	}
+
+	/**
+	 * @return true if the opening tag of the current element has already been
+	 *         written, i.e. if the element is not empty
+	 */
+	public boolean isElementOpened() {
+		return writtenTags == depth && depth > 0;
+	}
+
+	/**
+	 * end the current element, its XML code is kept.
+	 *
+	 * @return true if the opening tag has been written, and the element has
+	 *         to be closed. If false, nothing has been written for this
+	 *         element.
+	 */
+	public boolean endElement() throws IOException {
+		boolean opened = isElementOpened();
+		if (opened)
+			writtenTags--;
+		depth--;
+		openTags[depth] = null;
+		if (depth < flushedElements) {
+			flushedElements = depth;
+		} else {
+			int length = lengths[depth];
+			lengths[depth] = 0;
+			bufferedChars -= length;
+			append(depth - 1, buffers[depth], 0, length);
+		}
+		return opened;
+	}
+
+	/**
+	 * try to remove the current element from the output.
+	 *
+	 * @return true if the element has been removed. If false, its beginning
+	 *         has already been written because it was too big to be kept in
+	 *         the buffers: the element is still the current one and has to be
+	 *         ended.
+	 */
+	public boolean discardElement() {
+		if (depth - 1 < flushedElements)
+			return false;
+		depth--;
+		openTags[depth] = null;
+		/* first level which code is removed */
+		int first = depth;
+		if (writtenTags > depth) {
+			/*
+			 * the tags of the parents may have been written only for this
+			 * element: they are pending again
+			 */
+			while (first > flushedElements
+					&& lengths[first - 1] == openTags[first - 1].length())
+				first--;
+			writtenTags = first;
+		}
+		for (int level = first; level <= depth; level++) {
+			if (lineMap != null) {
+				char[] buffer = buffers[level];
+				for (int i = 0; i < lengths[level]; i++) {
+					if (buffer[i] == '\n')
+						outputLine--;
+				}
+			}
+			bufferedChars -= lengths[level];
+			lengths[level] = 0;
+		}
+		if (lineMap != null) {
+			lineMap.truncate(outputLine);
+			markPending = true;
+		}
+		return true;
+	}
+
+	/**
+	 * write the pending opening tags
+	 */
+	private void writeOpenTags() throws IOException {
+		while (writtenTags < depth) {
+			String tag = openTags[writtenTags];
+			if (lineMap != null)
+				countLines(tag.toCharArray(), 0, tag.length());
+			append(writtenTags, tag.toCharArray(), 0, tag.length());
+			writtenTags++;
+		}
+	}
+
+	/**
+	 * add XML code to an element, or directly to the output if the element
+	 * has already been flushed
+	 */
+	private void append(int level, char[] cbuf, int off, int len)
+			throws IOException {
+		if (len == 0)
+			return;
+		if (level < flushedElements) {
+			out.write(cbuf, off, len);
+			return;
+		}
+		char[] buffer = buffers[level];
+		int length = lengths[level];
+		if (buffer == null || buffer.length < length + len) {
+			int size = buffer == null ? INITIAL_BUFFER_SIZE : buffer.length * 2;
+			while (size < length + len)
+				size *= 2;
+			char[] newBuffer = new char[size];
+			if (buffer != null)
+				System.arraycopy(buffer, 0, newBuffer, 0, length);
+			buffer = newBuffer;
+			buffers[level] = buffer;
+		}
+		System.arraycopy(cbuf, off, buffer, length, len);
+		lengths[level] = length + len;
+		bufferedChars += len;
+		if (bufferedChars > peakBufferedChars)
+			peakBufferedChars = bufferedChars;
+		if (bufferedChars > bufferLimit)
+			flushOuterElements();
+	}
+
+	/**
+	 * write the buffers of the outermost elements until the buffered code
+	 * fits in the limit.
+	 */
+	private void flushOuterElements() throws IOException {
+		while (bufferedChars > bufferLimit && flushedElements < depth) {
+			int length = lengths[flushedElements];
+			out.write(buffers[flushedElements], 0, length);
+			bufferedChars -= length;
+			lengths[flushedElements] = 0;
+			flushedElements++;
+		}
+	}
+
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0)
+			return;
+		writeOpenTags();
+		if (lineMap != null)
+			countLines(cbuf, off, len);
+		append(depth - 1, cbuf, off, len);
+	}
+
+	public void write(String str) throws IOException {
+		if (str.length() == 0)
+			return;
+		write(str.toCharArray(), 0, str.length());
+	}
+
+	/**
+	 * follow the output lines, and note where the code created from a new
+	 * flat file line starts, i.e. at its first character that is not a space
+	 */
+	private void countLines(char[] cbuf, int off, int len) {
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			char c = cbuf[i];
+			if (c == '\n') {
+				outputLine++;
+			} else if (markPending && false == Character.isWhitespace(c)) {
+				lineMap.mark(outputLine, flatLine);
+				markPending = false;
+			}
+		}
+	}
+
+	/**
+	 * note the flat file line of the XML code written
+	 *
+	 * @param lineMap
+	 *            where to note the flat file lines
+	 * @param firstLine
+	 *            the output line where the code of this writer starts
+	 */
+	public void setLineMap(OutputLineMap lineMap, int firstLine) {
+		this.lineMap = lineMap;
+		this.outputLine = firstLine;
+	}
+
+	/**
+	 * @param flatLine
+	 *            the flat file line from which the next XML code is created
+	 */
+	public void setFlatLine(int flatLine) {
+		if (lineMap != null && flatLine != this.flatLine) {
+			this.flatLine = flatLine;
+			markPending = true;
+		}
+	}
+
+	/**
+	 * flush the output. The XML code of the elements not yet ended is kept in
+	 * the buffers.
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * @return the depth of the element currently marshalled
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return the maximum amount of memory used by the XML code kept in the
+	 *         buffers, in bytes
+	 */
+	public long getPeakBufferedBytes() {
+		return peakBufferedChars * 2;
+	}
+
+	public int getBufferLimit() {
+		return bufferLimit;
+	}
+}
@@ -0,0 +1,115 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+/**
+ * Line of the flat file from which each line of the XML document has been
+ * created. Only the lines where the flat file line changes are kept, and the
+ * lines already validated can be forgotten, so that the memory used does not
+ * depend on the size of the document.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class OutputLineMap {
+
+	/**
+	 * the output lines where a flat file line starts, in increasing order
+	 */
+	private int[] outputLines = new int[64];
+
+	private int[] flatLines = new int[64];
+
+	private int start = 0;
+
+	private int end = 0;
+
+	/**
+	 * note that the XML code created from a line of the flat file starts at
+	 * an output line
+	 */
+	public synchronized void mark(int outputLine, int flatLine) {
+		truncate(outputLine - 1);
+		if (end > start && flatLines[end - 1] == flatLine)
+			return;
+		if (end == outputLines.length) {
+			if (start > outputLines.length / 2) {
+				System.arraycopy(outputLines, start, outputLines, 0, end - start);
+				System.arraycopy(flatLines, start, flatLines, 0, end - start);
+			} else {
+				int[] newOutputLines = new int[outputLines.length * 2];
+				int[] newFlatLines = new int[outputLines.length * 2];
+				System.arraycopy(outputLines, start, newOutputLines, 0, end
+						- start);
+				System.arraycopy(flatLines, start, newFlatLines, 0, end - start);
+				outputLines = newOutputLines;
+				flatLines = newFlatLines;
+			}
+			end -= start;
+			start = 0;
+		}
+		outputLines[end] = outputLine;
+		flatLines[end] = flatLine;
+		end++;
+	}
+
+	/**
+	 * forget the marks after an output line, e.g. because the XML code
+	 * written after it has been removed
+	 */
+	public synchronized void truncate(int outputLine) {
+		while (end > start && outputLines[end - 1] > outputLine)
+			end--;
+	}
+
+	/**
+	 * forget the marks before an output line that will not be looked for
+	 * anymore
+	 */
+	public synchronized void prune(int outputLine) {
+		int index = find(outputLine);
+		if (index > start)
+			start = index;
+	}
+
+	/**
+	 * @return the line of the flat file from which an output line has been
+	 *         created, or 0 if it is not known
+	 */
+	public synchronized int getFlatLine(int outputLine) {
+		int index = find(outputLine);
+		return index < 0 ? 0 : flatLines[index];
+	}
+
+	/**
+	 * @return the index of the last mark at or before the output line, or -1
+	 */
+	private int find(int outputLine) {
+		int low = start;
+		int high = end - 1;
+		int index = -1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (outputLines[middle] <= outputLine) {
+				index = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return index;
+	}
+}
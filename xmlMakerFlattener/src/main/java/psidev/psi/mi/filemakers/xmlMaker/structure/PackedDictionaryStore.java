@@ -0,0 +1,156 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+/**
+ * Lookup in a dictionary packed in bytes. Each entry (the word and its
+ * definitions) is written in UTF-8, each string being preceded by its length.
+ * The entries are found using a hash table with open addressing, which keeps
+ * for each slot the hash code of the word and the position of the entry.
+ *
+ * The subclasses decide where the bytes and the table are kept.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ */
+public abstract class PackedDictionaryStore implements DictionaryStore {
+
+	/**
+	 * @return the byte at this position in the entries
+	 */
+	protected abstract byte byteAt(int position);
+
+	/**
+	 * @return the hash code of the word in the slot
+	 */
+	protected abstract int hashAt(int slot);
+
+	/**
+	 * @return the position of the entry of the slot plus one, 0 if the slot
+	 *         is empty
+	 */
+	protected abstract int offsetAt(int slot);
+
+	/**
+	 * @return the number of slots of the table, a power of 2
+	 */
+	protected abstract int getCapacity();
+
+	/**
+	 * spread the bits of the hash code, as the table size is a power of 2
+	 */
+	protected static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * @return the slot containing the word, or the empty slot where it
+	 *         should be inserted
+	 */
+	protected int find(String value, int hash) {
+		int mask = getCapacity() - 1;
+		int slot = mix(hash) & mask;
+		while (offsetAt(slot) != 0) {
+			if (hashAt(slot) == hash && isWord(offsetAt(slot) - 1, value))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	public String getDefinition(String value, int definitionNumber) {
+		int slot = find(value, value.hashCode());
+		if (offsetAt(slot) == 0 || definitionNumber < 1)
+			return null;
+		int position = offsetAt(slot) - 1;
+		/* skip the word */
+		int length = readInt(position);
+		position = skipInt(position) + length;
+		int nbDefinitions = readInt(position);
+		if (definitionNumber > nbDefinitions)
+			return null;
+		position = skipInt(position);
+		for (int i = 1; i < definitionNumber; i++) {
+			length = readInt(position);
+			position = skipInt(position) + length;
+		}
+		length = readInt(position);
+		position = skipInt(position);
+		return readString(position, length) + " ";
+	}
+
+	protected int readInt(int position) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = byteAt(position++);
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	protected int skipInt(int position) {
+		while ((byteAt(position++) & 0x80) != 0)
+			;
+		return position;
+	}
+
+	protected String readString(int position, int length) {
+		char[] chars = new char[length];
+		int end = position + length;
+		int nbChars = 0;
+		while (position < end) {
+			int b = byteAt(position++) & 0xFF;
+			if (b < 0x80) {
+				chars[nbChars++] = (char) b;
+			} else if (b < 0xE0) {
+				chars[nbChars++] = (char) (((b & 0x1F) << 6) | (byteAt(position++) & 0x3F));
+			} else {
+				chars[nbChars++] = (char) (((b & 0x0F) << 12)
+						| ((byteAt(position++) & 0x3F) << 6) | (byteAt(position++) & 0x3F));
+			}
+		}
+		return new String(chars, 0, nbChars);
+	}
+
+	/**
+	 * @return true if the entry at this position is the one of the word
+	 */
+	protected boolean isWord(int position, String value) {
+		int length = readInt(position);
+		position = skipInt(position);
+		int end = position + length;
+		int i = 0;
+		int n = value.length();
+		while (position < end) {
+			int b = byteAt(position++) & 0xFF;
+			int c;
+			if (b < 0x80) {
+				c = b;
+			} else if (b < 0xE0) {
+				c = ((b & 0x1F) << 6) | (byteAt(position++) & 0x3F);
+			} else {
+				c = ((b & 0x0F) << 12) | ((byteAt(position++) & 0x3F) << 6)
+						| (byteAt(position++) & 0x3F);
+			}
+			if (i >= n || value.charAt(i++) != c)
+				return false;
+		}
+		return i == n;
+	}
+}
@@ -0,0 +1,294 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import psidev.psi.mi.filemakers.xsd.SchemaValidator;
+
+/**
+ * Writer that validates the XML document against the schema while it is
+ * written. The XML code is written to the output and also given, by blocks,
+ * to a validator that reads it as a stream in its own thread: the document
+ * is validated without being read again.
+ *
+ * The errors are given to the error handler with, at the end of the message,
+ * the line of the flat file from which the wrong XML code has been created.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class ValidatingWriter extends Writer {
+
+	public final static int BLOCK_SIZE = 8192;
+
+	/**
+	 * number of blocks waiting to be validated, before the writer waits for
+	 * the validator
+	 */
+	private final static int QUEUE_SIZE = 16;
+
+	/**
+	 * number of output lines that may still be looked for in the line map,
+	 * higher than the number of characters between the writer and the
+	 * validator
+	 */
+	private final static int LINES_KEPT = (QUEUE_SIZE + 4) * BLOCK_SIZE;
+
+	private final static char[] END_OF_DOCUMENT = new char[0];
+
+	private Writer out;
+
+	private BlockingQueue<char[]> blocks = new ArrayBlockingQueue<char[]>(
+			QUEUE_SIZE);
+
+	private char[] block = new char[BLOCK_SIZE];
+
+	private int blockLength = 0;
+
+	/**
+	 * line of the next character written, from 1
+	 */
+	private int lineNumber = 1;
+
+	private OutputLineMap lineMap = new OutputLineMap();
+
+	private ErrorHandler errorHandler;
+
+	private Thread validation;
+
+	/**
+	 * true once the validator has stopped reading
+	 */
+	private volatile boolean validationEnded = false;
+
+	/**
+	 * the reason why the document could not be validated, if any
+	 */
+	private volatile Exception failure = null;
+
+	/**
+	 * @param out
+	 *            the writer where to write the XML code
+	 * @param validator
+	 *            validator of the schema
+	 * @param systemId
+	 *            the URI of the document, given with the errors
+	 * @param errorHandler
+	 *            receives the errors found, from the thread of the validator
+	 */
+	public ValidatingWriter(Writer out, final SchemaValidator validator,
+			final String systemId, ErrorHandler errorHandler) {
+		this.out = out;
+		this.errorHandler = errorHandler;
+		validation = new Thread("validation of " + systemId) {
+			public void run() {
+				try {
+					validator.validate(new StreamSource(new BlockReader(),
+							systemId), new LineMappingHandler());
+				} catch (SAXParseException e) {
+					/* already given to the error handler */
+				} catch (SAXException e) {
+					failure = e;
+				} catch (IOException e) {
+					failure = e;
+				} catch (RuntimeException e) {
+					failure = e;
+				} finally {
+					validationEnded = true;
+					blocks.clear();
+				}
+			}
+		};
+		validation.setDaemon(true);
+		validation.start();
+	}
+
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		out.write(cbuf, off, len);
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			if (cbuf[i] == '\n')
+				lineNumber++;
+		}
+		while (len > 0) {
+			int length = Math.min(len, BLOCK_SIZE - blockLength);
+			System.arraycopy(cbuf, off, block, blockLength, length);
+			blockLength += length;
+			off += length;
+			len -= length;
+			if (blockLength == BLOCK_SIZE)
+				sendBlock();
+		}
+	}
+
+	public void write(String str) throws IOException {
+		write(str.toCharArray(), 0, str.length());
+	}
+
+	public void write(String str, int off, int len) throws IOException {
+		write(str.substring(off, off + len));
+	}
+
+	public void write(int c) throws IOException {
+		write(new char[] { (char) c }, 0, 1);
+	}
+
+	/**
+	 * give the current block to the validator
+	 */
+	private void sendBlock() throws IOException {
+		if (blockLength == 0)
+			return;
+		char[] sent = block;
+		if (blockLength < BLOCK_SIZE) {
+			sent = new char[blockLength];
+			System.arraycopy(block, 0, sent, 0, blockLength);
+		} else {
+			block = new char[BLOCK_SIZE];
+		}
+		blockLength = 0;
+		put(sent);
+		lineMap.prune(lineNumber - LINES_KEPT);
+	}
+
+	private void put(char[] sent) throws IOException {
+		try {
+			while (false == validationEnded
+					&& false == blocks.offer(sent, 100, TimeUnit.MILLISECONDS))
+				;
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * flush the output. The XML code not yet given to the validator is kept
+	 * until a block is full.
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * close the output and wait for the end of the validation
+	 */
+	public void close() throws IOException {
+		try {
+			out.close();
+		} finally {
+			sendBlock();
+			put(END_OF_DOCUMENT);
+			try {
+				validation.join();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException(e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return the line of the next character written, from 1
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return where to note the flat file line of the output lines
+	 */
+	public OutputLineMap getLineMap() {
+		return lineMap;
+	}
+
+	/**
+	 * @return the reason why the document could not be validated, or null
+	 */
+	public Exception getFailure() {
+		return failure;
+	}
+
+	/**
+	 * read the blocks given to the validator
+	 */
+	private class BlockReader extends Reader {
+		private char[] current = null;
+
+		private int position = 0;
+
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			while (current == null || position == current.length) {
+				if (current == END_OF_DOCUMENT)
+					return -1;
+				try {
+					current = blocks.take();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException(e.getMessage());
+				}
+				position = 0;
+			}
+			int length = Math.min(len, current.length - position);
+			System.arraycopy(current, position, cbuf, off, length);
+			position += length;
+			return length;
+		}
+
+		public void close() {
+		}
+	}
+
+	/**
+	 * add the line of the flat file to the messages of the validator
+	 */
+	private class LineMappingHandler implements ErrorHandler {
+		public void warning(SAXParseException exception) throws SAXException {
+			errorHandler.warning(mapLine(exception));
+		}
+
+		public void error(SAXParseException exception) throws SAXException {
+			errorHandler.error(mapLine(exception));
+		}
+
+		public void fatalError(SAXParseException exception)
+				throws SAXException {
+			errorHandler.fatalError(mapLine(exception));
+		}
+
+		private SAXParseException mapLine(SAXParseException exception) {
+			int flatLine = lineMap.getFlatLine(exception.getLineNumber());
+			if (flatLine <= 0)
+				return exception;
+			return new SAXParseException(exception.getMessage()
+					+ " (line : " + flatLine + ")", exception.getPublicId(),
+					exception.getSystemId(), exception.getLineNumber(),
+					exception.getColumnNumber(), exception.getException());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import java.util.Arrays;
+
+/**
+ * Values of the nodes of a marshalling plan for the current record of the
+ * flat files, so that a value is computed only once for a record. A value is
+ * kept by index of the node in the plan.
+ *
+ * <code>invalidate</code> has to be called each time the line of a flat file
+ * changes: it only increments a counter, the values computed before are
+ * ignored.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class ValueCache {
+
+	private String[] values;
+
+	/**
+	 * record for which each value has been computed
+	 */
+	private int[] records;
+
+	private int record = 1;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * @param size
+	 *            number of nodes in the plan
+	 */
+	public ValueCache(int size) {
+		values = new String[size];
+		records = new int[size];
+	}
+
+	/**
+	 * @return true if the value of the node has already been computed for
+	 *         this record
+	 */
+	public boolean contains(int index) {
+		if (records[index] == record) {
+			hits++;
+			return true;
+		}
+		misses++;
+		return false;
+	}
+
+	/**
+	 * @return the value found by <code>contains</code>
+	 */
+	public String get(int index) {
+		return values[index];
+	}
+
+	public void put(int index, String value) {
+		values[index] = value;
+		records[index] = record;
+	}
+
+	/**
+	 * forget all values, for a new record
+	 */
+	public void invalidate() {
+		record++;
+		if (record == 0) {
+			/* the counter went round: the old values could be taken again */
+			Arrays.fill(records, 0);
+			record = 1;
+		}
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+}
@@ -0,0 +1,279 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sends the messages to a message manager. Between <code>start</code> and
+ * <code>stop</code>, the messages are put in a queue and sent by another
+ * thread, so that the thread sending them does not wait for them to be
+ * displayed.
+ *
+ * The messages sent with a template are counted, and are not all displayed:
+ * <ul>
+ * <li>only the first <code>maxMessagesPerTemplate</code> messages of a
+ * template are displayed, then one every <code>samplingInterval</code>
+ * messages;</li>
+ * <li>only the first <code>maxMessagesPerKey</code> messages of a template
+ * for the same node and the same value are displayed.</li>
+ * </ul>
+ * The number of messages not displayed for each template is sent by
+ * <code>stop</code>.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class MessageDispatcher implements MessageManagerInt {
+
+	public final static int QUEUE_SIZE = 1024;
+
+	/**
+	 * number of different nodes and values for which the messages are
+	 * counted
+	 */
+	private final static int MAX_KEYS = 100000;
+
+	public int maxMessagesPerTemplate = 1000;
+
+	public int samplingInterval = 10000;
+
+	public int maxMessagesPerKey = 10;
+
+	private volatile MessageManagerInt target;
+
+	private final BlockingQueue<Event> queue = new ArrayBlockingQueue<Event>(
+			QUEUE_SIZE);
+
+	private volatile Thread thread = null;
+
+	/**
+	 * templates used since the creation of the dispatcher
+	 */
+	private final ArrayList<MessageTemplate> templates = new ArrayList<MessageTemplate>();
+
+	/**
+	 * number of messages displayed for each template, only used by the
+	 * thread that displays the messages
+	 */
+	private final HashMap<MessageTemplate, int[]> displayed = new HashMap<MessageTemplate, int[]>();
+
+	/**
+	 * number of messages for each template, node and value, only used by the
+	 * thread that displays the messages
+	 */
+	private final HashMap<Event, int[]> keys = new HashMap<Event, int[]>();
+
+	/**
+	 * lock for the display of the messages, different from the lock of the
+	 * dispatcher so that <code>stop</code> can wait for the thread
+	 */
+	private final Object displayLock = new Object();
+
+	private final static Event STOP = new Event(null, null, null, 0, null, 0);
+
+	/**
+	 * A message. Messages with the same template, node and value are equal,
+	 * whatever their line.
+	 */
+	private static class Event {
+		final MessageTemplate template;
+
+		final XsdNode node;
+
+		final String value;
+
+		final int line;
+
+		/** text of the messages sent without template */
+		final String message;
+
+		final int type;
+
+		Event(MessageTemplate template, XsdNode node, String value, int line,
+				String message, int type) {
+			this.template = template;
+			this.node = node;
+			this.value = value;
+			this.line = line;
+			this.message = message;
+			this.type = type;
+		}
+
+		public boolean equals(Object o) {
+			if (false == o instanceof Event)
+				return false;
+			Event event = (Event) o;
+			return template == event.template && node == event.node
+					&& (value == null ? event.value == null : value
+							.equals(event.value));
+		}
+
+		public int hashCode() {
+			return System.identityHashCode(template) * 31
+					+ System.identityHashCode(node) * 17
+					+ (value == null ? 0 : value.hashCode());
+		}
+	}
+
+	public MessageDispatcher(MessageManagerInt target) {
+		this.target = target;
+	}
+
+	public MessageManagerInt getTarget() {
+		return target;
+	}
+
+	public void setTarget(MessageManagerInt target) {
+		this.target = target;
+	}
+
+	public void sendMessage(String message, int type) {
+		Event event = new Event(null, null, null, 0, message, type);
+		if (thread == null) {
+			display(event);
+			return;
+		}
+		try {
+			queue.put(event);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			display(event);
+		}
+	}
+
+	/**
+	 * send a message built from a template. The message is only formatted if
+	 * it is displayed.
+	 */
+	public void sendMessage(MessageTemplate template, XsdNode node,
+			String value, int line) {
+		long count = template.increment();
+		if (count == 1) {
+			synchronized (templates) {
+				if (false == templates.contains(template))
+					templates.add(template);
+			}
+		}
+		if (count > maxMessagesPerTemplate && count % samplingInterval != 0)
+			return;
+		Event event = new Event(template, node, value, line, null, template
+				.getType());
+		if (thread == null)
+			display(event);
+		else
+			/* if the queue is full, the message is only counted */
+			queue.offer(event);
+	}
+
+	/**
+	 * start sending the messages in another thread, and count the messages
+	 * from zero
+	 */
+	public synchronized void start() {
+		if (thread != null)
+			return;
+		synchronized (templates) {
+			for (MessageTemplate template : templates)
+				template.reset();
+		}
+		synchronized (displayLock) {
+			displayed.clear();
+			keys.clear();
+		}
+		queue.clear();
+		Thread newThread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					for (Event event = queue.take(); event != STOP; event = queue
+							.take())
+						display(event);
+				} catch (InterruptedException e) {
+					/* stopped */
+				}
+			}
+		}, "messages");
+		newThread.setDaemon(true);
+		newThread.start();
+		thread = newThread;
+	}
+
+	/**
+	 * wait until the messages in the queue are sent, then send the number of
+	 * messages not displayed for each template
+	 */
+	public synchronized void stop() {
+		if (thread == null)
+			return;
+		Thread previousThread = thread;
+		try {
+			queue.put(STOP);
+			previousThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+		/* messages sent while stopping */
+		for (Event event = queue.poll(); event != null; event = queue.poll())
+			if (event != STOP)
+				display(event);
+
+		synchronized (templates) {
+			for (MessageTemplate template : templates) {
+				int[] count;
+				synchronized (displayLock) {
+					count = displayed.get(template);
+				}
+				long hidden = template.getCount()
+						- (count == null ? 0 : count[0]);
+				if (hidden > 0)
+					target.sendMessage(template.getName() + ": " + hidden
+							+ " more messages not displayed ("
+							+ template.getCount() + " in total)", template
+							.getType());
+			}
+		}
+	}
+
+	private void display(Event event) {
+		synchronized (displayLock) {
+			if (event.template == null) {
+				target.sendMessage(event.message, event.type);
+				return;
+			}
+			int[] count = keys.get(event);
+			if (count == null) {
+				count = new int[1];
+				if (keys.size() < MAX_KEYS)
+					keys.put(event, count);
+			}
+			if (++count[0] > maxMessagesPerKey)
+				return;
+
+			int[] displayedCount = displayed.get(event.template);
+			if (displayedCount == null) {
+				displayedCount = new int[1];
+				displayed.put(event.template, displayedCount);
+			}
+			displayedCount[0]++;
+			target.sendMessage(event.template.format(event.node, event.value,
+					event.line), event.type);
+		}
+	}
+}
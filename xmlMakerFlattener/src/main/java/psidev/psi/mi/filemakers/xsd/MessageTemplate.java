@@ -0,0 +1,85 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A kind of message sent many times with different nodes, values and line
+ * numbers, e.g. "no value found in dictionary". The text of a message is
+ * only built by <code>format</code> when the message is displayed.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public abstract class MessageTemplate {
+
+	private final String name;
+
+	private final int type;
+
+	/**
+	 * number of messages sent with this template since the last reset
+	 */
+	private final AtomicLong count = new AtomicLong();
+
+	/**
+	 * @param name
+	 *            short description of the messages, used to report the
+	 *            messages that are not displayed
+	 * @param type
+	 *            type of the messages, as defined in
+	 *            <code>MessageManagerInt</code>
+	 */
+	public MessageTemplate(String name, int type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * @param node
+	 *            the node concerned
+	 * @param value
+	 *            the value or the element concerned, may be null
+	 * @param line
+	 *            the line of the flat file
+	 * @return the text of the message
+	 */
+	public abstract String format(XsdNode node, String value, int line);
+
+	public String getName() {
+		return name;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * @return the number of messages sent, including this one
+	 */
+	long increment() {
+		return count.incrementAndGet();
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	void reset() {
+		count.set(0);
+	}
+}
@@ -0,0 +1,80 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.Enumeration;
+
+/**
+ * Numbers of the nodes of a tree, from 0, so that the informations about the
+ * nodes can be kept in arrays. The number is kept in the node itself: finding
+ * it only costs a comparison, made to recognize the copies of a node that
+ * have not been numbered yet.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class NodeIndex {
+
+	private XsdNode[] nodes = new XsdNode[256];
+
+	private int size = 0;
+
+	/**
+	 * @return the number of the node, or -1 if it has not been numbered
+	 */
+	public int getId(Object node) {
+		if (false == node instanceof XsdNode)
+			return -1;
+		int id = ((XsdNode) node).id;
+		if (id >= 0 && id < size && nodes[id] == node)
+			return id;
+		return -1;
+	}
+
+	/**
+	 * @return the number of the node, given now if it had none
+	 */
+	public int addNode(XsdNode node) {
+		int id = getId(node);
+		if (id >= 0)
+			return id;
+		if (size == nodes.length) {
+			XsdNode[] newNodes = new XsdNode[size * 2];
+			System.arraycopy(nodes, 0, newNodes, 0, size);
+			nodes = newNodes;
+		}
+		nodes[size] = node;
+		node.id = size;
+		return size++;
+	}
+
+	/**
+	 * number the node and all its descendants, in the order of the tree
+	 */
+	public void addTree(XsdNode node) {
+		addNode(node);
+		Enumeration<?> children = node.children();
+		while (children.hasMoreElements())
+			addTree((XsdNode) children.nextElement());
+	}
+
+	/**
+	 * @return the number of nodes numbered
+	 */
+	public int size() {
+		return size;
+	}
+}
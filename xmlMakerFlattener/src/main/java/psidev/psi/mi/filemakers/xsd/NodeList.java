@@ -0,0 +1,148 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * List of nodes of a tree in which a node is found without going through the
+ * list: the position of each node is kept in an array, by number of node.
+ * The array is computed again each time the list is modified, which only
+ * happens when the mapping is edited.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class NodeList extends ArrayList<XsdNode> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final NodeIndex index;
+
+	/**
+	 * for each node, its first position in the list plus one, 0 if it is not
+	 * in the list
+	 */
+	private int[] positions = new int[0];
+
+	public NodeList(NodeIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * @param nodes
+	 *            nodes to copy
+	 */
+	public NodeList(NodeIndex index, Collection<? extends XsdNode> nodes) {
+		this.index = index;
+		if (nodes != null)
+			super.addAll(nodes);
+		updatePositions();
+	}
+
+	private void updatePositions() {
+		for (int i = 0; i < size(); i++) {
+			if (get(i) != null)
+				index.addNode(get(i));
+		}
+		positions = new int[index.size()];
+		for (int i = size() - 1; i >= 0; i--) {
+			if (get(i) != null)
+				positions[get(i).id] = i + 1;
+		}
+	}
+
+	public boolean contains(Object node) {
+		return indexOf(node) >= 0;
+	}
+
+	public int indexOf(Object node) {
+		if (node == null)
+			return super.indexOf(node);
+		int id = index.getId(node);
+		if (id < 0 || id >= positions.length)
+			return -1;
+		return positions[id] - 1;
+	}
+
+	public boolean add(XsdNode node) {
+		super.add(node);
+		updatePositions();
+		return true;
+	}
+
+	public void add(int position, XsdNode node) {
+		super.add(position, node);
+		updatePositions();
+	}
+
+	public boolean addAll(Collection<? extends XsdNode> nodes) {
+		boolean modified = super.addAll(nodes);
+		updatePositions();
+		return modified;
+	}
+
+	public boolean addAll(int position, Collection<? extends XsdNode> nodes) {
+		boolean modified = super.addAll(position, nodes);
+		updatePositions();
+		return modified;
+	}
+
+	public XsdNode set(int position, XsdNode node) {
+		XsdNode previous = super.set(position, node);
+		updatePositions();
+		return previous;
+	}
+
+	public XsdNode remove(int position) {
+		XsdNode previous = super.remove(position);
+		updatePositions();
+		return previous;
+	}
+
+	public boolean remove(Object node) {
+		boolean modified = super.remove(node);
+		updatePositions();
+		return modified;
+	}
+
+	public boolean removeAll(Collection<?> nodes) {
+		boolean modified = super.removeAll(nodes);
+		updatePositions();
+		return modified;
+	}
+
+	public boolean retainAll(Collection<?> nodes) {
+		boolean modified = super.retainAll(nodes);
+		updatePositions();
+		return modified;
+	}
+
+	protected void removeRange(int fromIndex, int toIndex) {
+		super.removeRange(fromIndex, toIndex);
+		updatePositions();
+	}
+
+	public void clear() {
+		super.clear();
+		positions = new int[0];
+	}
+
+	public Object clone() {
+		return new NodeList(index, this);
+	}
+}
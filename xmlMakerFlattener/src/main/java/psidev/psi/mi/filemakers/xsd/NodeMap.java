@@ -0,0 +1,117 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Association of values to the nodes of a tree. The values are also kept in
+ * an array, by number of node, so that looking for the value of a node does
+ * not need to hash it.
+ *
+ * The map has to be modified with <code>put</code>, <code>putAll</code>,
+ * <code>remove</code> and <code>clear</code>, not through its keys or
+ * entries.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class NodeMap<V> extends HashMap<XsdNode, V> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final NodeIndex index;
+
+	private Object[] values = new Object[0];
+
+	/**
+	 * the numbers of the nodes in the map
+	 */
+	private BitSet keys = new BitSet();
+
+	public NodeMap(NodeIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * @param map
+	 *            associations to copy
+	 */
+	public NodeMap(NodeIndex index, Map<XsdNode, ? extends V> map) {
+		this.index = index;
+		if (map != null)
+			putAll(map);
+	}
+
+	public V put(XsdNode key, V value) {
+		V previous = super.put(key, value);
+		if (key != null) {
+			int id = index.addNode(key);
+			if (id >= values.length) {
+				Object[] newValues = new Object[Math.max(index.size(),
+						id + 1)];
+				System.arraycopy(values, 0, newValues, 0, values.length);
+				values = newValues;
+			}
+			values[id] = value;
+			keys.set(id);
+		}
+		return previous;
+	}
+
+	public void putAll(Map<? extends XsdNode, ? extends V> map) {
+		for (Map.Entry<? extends XsdNode, ? extends V> entry : map.entrySet())
+			put(entry.getKey(), entry.getValue());
+	}
+
+	public V remove(Object key) {
+		int id = index.getId(key);
+		if (id >= 0 && id < values.length) {
+			values[id] = null;
+			keys.clear(id);
+		}
+		return super.remove(key);
+	}
+
+	public void clear() {
+		super.clear();
+		values = new Object[0];
+		keys.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (key == null)
+			return super.get(key);
+		int id = index.getId(key);
+		if (id < 0 || id >= values.length)
+			return null;
+		return (V) values[id];
+	}
+
+	public boolean containsKey(Object key) {
+		if (key == null)
+			return super.containsKey(key);
+		int id = index.getId(key);
+		return id >= 0 && keys.get(id);
+	}
+
+	public Object clone() {
+		return new NodeMap<V>(index, this);
+	}
+}
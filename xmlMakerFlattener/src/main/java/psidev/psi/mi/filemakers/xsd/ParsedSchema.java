@@ -0,0 +1,236 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.exolab.castor.xml.schema.ComplexType;
+import org.exolab.castor.xml.schema.ContentModelGroup;
+import org.exolab.castor.xml.schema.ElementDecl;
+import org.exolab.castor.xml.schema.Group;
+import org.exolab.castor.xml.schema.IdentityConstraint;
+import org.exolab.castor.xml.schema.IdentityField;
+import org.exolab.castor.xml.schema.Key;
+import org.exolab.castor.xml.schema.KeyRef;
+import org.exolab.castor.xml.schema.Schema;
+import org.exolab.castor.xml.schema.Structure;
+import org.exolab.castor.xml.schema.XMLType;
+import org.exolab.castor.xml.schema.reader.SchemaReader;
+import org.xml.sax.InputSource;
+
+/**
+ * A schema read by Castor, with its keys and key references. The schema is
+ * read only once: the keys are taken from the Castor structure.
+ *
+ * The schemas already read are kept for the whole process, with the hash of
+ * their content: a schema is parsed again only if the file has changed. The
+ * schemas kept are shared and must not be modified.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class ParsedSchema {
+
+	private static final Log log = LogFactory.getLog(ParsedSchema.class);
+
+	/**
+	 * schemas already read, by URL
+	 */
+	private static final HashMap<String, ParsedSchema> cache = new HashMap<String, ParsedSchema>();
+
+	public final Schema schema;
+
+	/**
+	 * MD5 of the content of the schema file
+	 */
+	public final String contentHash;
+
+	public final ArrayList<SchemaKey> keys = new ArrayList<SchemaKey>();
+
+	public final ArrayList<SchemaKey> keyRefs = new ArrayList<SchemaKey>();
+
+	private ParsedSchema(Schema schema, String contentHash) {
+		this.schema = schema;
+		this.contentHash = contentHash;
+		collectKeys();
+	}
+
+	/**
+	 * read a schema, or get it from the cache if the file has not changed
+	 * since it was read
+	 */
+	public static ParsedSchema read(URL url) throws IOException {
+		byte[] content = readContent(url);
+		String hash = getHash(content);
+		String key = url.toString();
+
+		synchronized (cache) {
+			ParsedSchema parsedSchema = cache.get(key);
+			if (parsedSchema != null && parsedSchema.contentHash.equals(hash)) {
+				log.debug("schema " + key + " found in cache");
+				return parsedSchema;
+			}
+		}
+
+		InputSource source = new InputSource(new ByteArrayInputStream(content));
+		source.setSystemId(key);
+		SchemaReader reader = new SchemaReader(source);
+		ParsedSchema parsedSchema = new ParsedSchema(reader.read(), hash);
+
+		synchronized (cache) {
+			cache.put(key, parsedSchema);
+		}
+		return parsedSchema;
+	}
+
+	/**
+	 * remove all schemas from the cache
+	 */
+	public static void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static byte[] readContent(URL url) throws IOException {
+		InputStream in = url.openStream();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) >= 0)
+				out.write(buffer, 0, length);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	private static String getHash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(content);
+			StringBuffer hash = new StringBuffer();
+			for (int i = 0; i < digest.length; i++) {
+				hash.append(Character.forDigit((digest[i] >> 4) & 0xF, 16));
+				hash.append(Character.forDigit(digest[i] & 0xF, 16));
+			}
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			/* every JVM provides MD5 */
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * collect the keys declared in all elements of the schema
+	 */
+	private void collectKeys() {
+		HashSet<Object> visited = new HashSet<Object>();
+		Enumeration<?> elements = schema.getElementDecls();
+		while (elements.hasMoreElements())
+			collectKeys((ElementDecl) elements.nextElement(), visited);
+		Enumeration<?> types = schema.getComplexTypes();
+		while (types.hasMoreElements())
+			collectKeys((ContentModelGroup) types.nextElement(), visited);
+		Enumeration<?> groups = schema.getModelGroups();
+		while (groups.hasMoreElements())
+			collectKeys((ContentModelGroup) groups.nextElement(), visited);
+	}
+
+	private void collectKeys(ElementDecl element, HashSet<Object> visited) {
+		if (false == visited.add(element))
+			return;
+		Enumeration<?> constraints = element.getIdentityConstraints();
+		while (constraints.hasMoreElements()) {
+			IdentityConstraint constraint = (IdentityConstraint) constraints
+					.nextElement();
+			String field = null;
+			Enumeration<?> fields = constraint.getFields();
+			while (fields.hasMoreElements())
+				field = ((IdentityField) fields.nextElement()).getXPath();
+			String selector = constraint.getSelector() == null ? null
+					: constraint.getSelector().getXPath();
+
+			if (constraint instanceof KeyRef) {
+				keyRefs.add(new SchemaKey(constraint.getName(),
+						((KeyRef) constraint).getRefer(), getPath(element),
+						selector, field));
+			} else if (constraint instanceof Key) {
+				keys.add(new SchemaKey(constraint.getName(), null,
+						getPath(element), selector, field));
+			}
+		}
+		XMLType type = element.getType();
+		if (type instanceof ComplexType)
+			collectKeys((ContentModelGroup) type, visited);
+	}
+
+	private void collectKeys(ContentModelGroup group, HashSet<Object> visited) {
+		if (false == visited.add(group))
+			return;
+		Enumeration<?> particles = group.enumerate();
+		while (particles.hasMoreElements()) {
+			Object particle = particles.nextElement();
+			if (particle instanceof ElementDecl)
+				collectKeys((ElementDecl) particle, visited);
+			else if (particle instanceof ContentModelGroup)
+				collectKeys((ContentModelGroup) particle, visited);
+		}
+		if (group instanceof ComplexType) {
+			XMLType baseType = ((ComplexType) group).getBaseType();
+			if (baseType instanceof ComplexType)
+				collectKeys((ContentModelGroup) baseType, visited);
+		}
+	}
+
+	/**
+	 * @return the names of the structure and of its ancestors in the schema,
+	 *         separated by '/'
+	 */
+	private static String getPath(Structure structure) {
+		String path = "";
+		while (structure != null && false == structure instanceof Schema) {
+			String name = null;
+			Structure parent = null;
+			if (structure instanceof ElementDecl) {
+				name = ((ElementDecl) structure).getName();
+				parent = ((ElementDecl) structure).getParent();
+			} else if (structure instanceof Group) {
+				name = ((Group) structure).getName();
+				parent = ((Group) structure).getParent();
+			} else if (structure instanceof ComplexType) {
+				name = ((XMLType) structure).getName();
+				parent = ((ComplexType) structure).getParent();
+			}
+			if (name != null)
+				path = path.length() == 0 ? name : name + "/" + path;
+			structure = parent;
+		}
+		return path;
+	}
+}
@@ -0,0 +1,97 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+/**
+ * A key (xs:key) or a key reference (xs:keyref) declared in a schema.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class SchemaKey {
+
+	/**
+	 * the name of the key
+	 */
+	public String name;
+
+	/**
+	 * for a key reference, the name of the key it refers. Null for a key.
+	 */
+	public String refer;
+
+	/**
+	 * the path in the schema of the element in which the key is declared,
+	 * i.e. the names of its ancestors separated by '/'
+	 */
+	public String path;
+
+	/**
+	 * the xpath of the selector, relative to the element in which the key is
+	 * declared
+	 */
+	public String selector;
+
+	/**
+	 * the xpath of the field
+	 */
+	public String field;
+
+	public SchemaKey(String name, String refer, String path, String selector,
+			String field) {
+		this.name = name;
+		this.refer = refer;
+		this.path = path;
+		this.selector = selector;
+		this.field = field;
+	}
+
+	public boolean isKeyRef() {
+		return refer != null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getRefer() {
+		return refer;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getSelector() {
+		return selector;
+	}
+
+	public String getField() {
+		return field;
+	}
+
+	/**
+	 * @return the path in the schema of the elements selected by the key
+	 */
+	public String getSelectorPath() {
+		return path + "/" + selector;
+	}
+
+	public String toString() {
+		return name + ": " + getSelectorPath()
+				+ (refer != null ? " refers " + refer : "");
+	}
+}
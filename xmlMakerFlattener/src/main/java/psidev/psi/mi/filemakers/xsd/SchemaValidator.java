@@ -0,0 +1,131 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+
+/**
+ * Validate XML documents against a schema compiled only once. The compiled
+ * schemas are kept for the whole process and can be shared by several
+ * threads, each thread using its own validator.
+ *
+ * The documents are validated as streams: they are not loaded in memory,
+ * whatever their size.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class SchemaValidator {
+
+	private static final Log log = LogFactory.getLog(SchemaValidator.class);
+
+	/**
+	 * validators already created, by URL of the schema
+	 */
+	private static final HashMap<String, SchemaValidator> cache = new HashMap<String, SchemaValidator>();
+
+	private final Schema schema;
+
+	private final ThreadLocal<Validator> validators = new ThreadLocal<Validator>() {
+		protected Validator initialValue() {
+			return schema.newValidator();
+		}
+	};
+
+	private SchemaValidator(Schema schema) {
+		this.schema = schema;
+	}
+
+	/**
+	 * get the validator of a schema, compiling the schema the first time
+	 *
+	 * @throws SAXException
+	 *             if the schema cannot be read
+	 */
+	public static SchemaValidator get(URL schemaURL) throws SAXException {
+		String key = schemaURL.toString();
+		synchronized (cache) {
+			SchemaValidator validator = cache.get(key);
+			if (validator == null) {
+				log.debug("compile schema " + key);
+				SchemaFactory factory = SchemaFactory
+						.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+				validator = new SchemaValidator(factory.newSchema(schemaURL));
+				cache.put(key, validator);
+			}
+			return validator;
+		}
+	}
+
+	/**
+	 * remove all compiled schemas, e.g. if a schema file has changed
+	 */
+	public static void clearCache() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @return the compiled schema, that can be given to a parser
+	 */
+	public Schema getSchema() {
+		return schema;
+	}
+
+	/**
+	 * validate a document
+	 *
+	 * @param errorHandler
+	 *            receives the errors found
+	 */
+	public void validate(URL document, ErrorHandler errorHandler)
+			throws SAXException, IOException {
+		validate(new StreamSource(document.toString()), errorHandler);
+	}
+
+	/**
+	 * validate a document read from a source
+	 *
+	 * @param errorHandler
+	 *            receives the errors found
+	 */
+	public void validate(Source source, ErrorHandler errorHandler)
+			throws SAXException, IOException {
+		Validator validator = validators.get();
+		validator.setErrorHandler(errorHandler);
+		try {
+			validator.validate(source);
+		} finally {
+			validator.reset();
+			validator.setErrorHandler(null);
+		}
+	}
+}
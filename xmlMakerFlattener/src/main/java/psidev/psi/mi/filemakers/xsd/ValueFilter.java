@@ -0,0 +1,133 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.HashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A regular expression that a whole value has to match, as with
+ * <code>String.matches</code>, compiled only once. Expressions without any
+ * special character are compared as text, and expressions such as "abc.*" as
+ * prefixes, without using the regex engine.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class ValueFilter {
+
+	private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+	/**
+	 * filters already compiled, by regular expression
+	 */
+	private static final HashMap<String, ValueFilter> filters = new HashMap<String, ValueFilter>();
+
+	private final String regexp;
+
+	/**
+	 * the text or the prefix to look for, null if the pattern is used
+	 */
+	private final String literal;
+
+	private final boolean prefix;
+
+	private final Pattern pattern;
+
+	/**
+	 * @throws PatternSyntaxException
+	 *             if the regular expression is not valid
+	 */
+	public ValueFilter(String regexp) throws PatternSyntaxException {
+		this.regexp = regexp;
+		if (isLiteral(regexp)) {
+			literal = regexp;
+			prefix = false;
+			pattern = null;
+		} else if (regexp.endsWith(".*")
+				&& isLiteral(regexp.substring(0, regexp.length() - 2))) {
+			literal = regexp.substring(0, regexp.length() - 2);
+			prefix = true;
+			pattern = null;
+		} else {
+			literal = null;
+			prefix = false;
+			pattern = Pattern.compile(regexp);
+		}
+	}
+
+	/**
+	 * get the filter for a regular expression, compiled only the first time
+	 *
+	 * @return the filter, or null if the expression is null
+	 * @throws PatternSyntaxException
+	 *             if the regular expression is not valid
+	 */
+	public static ValueFilter compile(String regexp)
+			throws PatternSyntaxException {
+		if (regexp == null)
+			return null;
+		synchronized (filters) {
+			ValueFilter filter = filters.get(regexp);
+			if (filter == null) {
+				filter = new ValueFilter(regexp);
+				filters.put(regexp, filter);
+			}
+			return filter;
+		}
+	}
+
+	private static boolean isLiteral(String regexp) {
+		for (int i = 0; i < regexp.length(); i++) {
+			if (META_CHARACTERS.indexOf(regexp.charAt(i)) >= 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the whole value matches the regular expression
+	 */
+	public boolean matches(String value) {
+		if (literal == null)
+			return pattern.matcher(value).matches();
+		if (false == prefix)
+			return literal.equals(value);
+		if (false == value.startsWith(literal))
+			return false;
+		/* '.' does not match the line terminators */
+		for (int i = literal.length(); i < value.length(); i++) {
+			switch (value.charAt(i)) {
+			case '\n':
+			case '\r':
+			case '\u0085':
+			case '\u2028':
+			case '\u2029':
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public String getRegexp() {
+		return regexp;
+	}
+
+	public String toString() {
+		return regexp;
+	}
+}
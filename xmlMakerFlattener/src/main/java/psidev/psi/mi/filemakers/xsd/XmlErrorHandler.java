@@ -1,56 +1,322 @@
-/*  Copyright 2004 Arnaud CEOL
-
- Licensed under the Apache License, Version 2.0 (the "License");
- you may not use this file except in compliance with the License.
-
- You may obtain a copy of the License at
- http://www.apache.org/licenses/LICENSE-2.0
-
- Unless required by applicable law or agreed to in writing, software
- distributed under the License is distributed on an "AS IS" BASIS,
- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- See the License for the specific language governing permissions and
- limitations under the License.
- */
-package psidev.psi.mi.filemakers.xsd;
-
-import java.util.ArrayList;
-
-import org.xml.sax.ErrorHandler;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
-
-/**
- * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
- *         arnaud.ceol@gmail.com
- *  
- */
-public class XmlErrorHandler implements ErrorHandler {
-	private ArrayList<String> errors = new ArrayList<String> ();
-
-	public final static int error = 0;
-	public final static int warning = 1;
-	
-	public void warning(SAXParseException exception) throws SAXException {
-		errors.add("Warning	" + "  Line:    " + exception.getLineNumber() + "	"
-				+ "  URI:     " + exception.getSystemId() + "	" + "  Message: "
-				+ exception.getMessage());
-	}
-
-	public void error(SAXParseException exception) throws SAXException {
-		errors.add("Error " + "  Line:    " + exception.getLineNumber() + "	"
-				+ "  URI:     " + exception.getSystemId() + "	" + "  Message: "
-				+ exception.getMessage());
-	}
-
-	public void fatalError(SAXParseException exception) throws SAXException {
-		errors.add("Fatal Error	" + "  Line:    " + exception.getLineNumber()
-				+ "	" + "  URI:     " + exception.getSystemId() + "	"
-				+ "  Message: " + exception.getMessage());
-	}
-
-	public ArrayList<String> getErrors() {
-		return errors;
-	}
-}
-
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xsd;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Collect the messages of the XML parser. Only the first messages are kept as
+ * they are, the following ones are counted by kind of message: the values in
+ * the message, such as numbers or quoted texts, are ignored, and only the
+ * first and last lines where the message appears are kept. The number of
+ * kinds of messages kept is also limited, so that the memory used does not
+ * depend on the number of errors in the document.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class XmlErrorHandler implements ErrorHandler {
+
+	public final static int error = 0;
+
+	public final static int warning = 1;
+
+	public final static int fatalError = 2;
+
+	public final static int DEFAULT_MAX_MESSAGES = 100;
+
+	public final static int DEFAULT_MAX_SUMMARIES = 1000;
+
+	/**
+	 * the messages of a kind that have not been kept
+	 */
+	public static class Summary {
+		private final int severity;
+
+		/**
+		 * the message, with '#' in place of the numbers and '*' in place of
+		 * the quoted texts
+		 */
+		private final String template;
+
+		private int count = 0;
+
+		private int firstLine;
+
+		private int lastLine;
+
+		Summary(int severity, String template, int line) {
+			this.severity = severity;
+			this.template = template;
+			this.firstLine = line;
+			this.lastLine = line;
+		}
+
+		/**
+		 * copy of the summary, that is not modified by the handler
+		 */
+		Summary(Summary summary) {
+			this.severity = summary.severity;
+			this.template = summary.template;
+			this.count = summary.count;
+			this.firstLine = summary.firstLine;
+			this.lastLine = summary.lastLine;
+		}
+
+		/**
+		 * count a message found at this line
+		 */
+		void add(int line) {
+			count++;
+			if (line < firstLine)
+				firstLine = line;
+			if (line > lastLine)
+				lastLine = line;
+		}
+
+		public int getSeverity() {
+			return severity;
+		}
+
+		public String getTemplate() {
+			return template;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public int getFirstLine() {
+			return firstLine;
+		}
+
+		public int getLastLine() {
+			return lastLine;
+		}
+
+		public String toString() {
+			return getSeverityName(severity) + "	" + count
+					+ " more times, lines " + firstLine + " to " + lastLine
+					+ "	  Message: " + template;
+		}
+	}
+
+	private ArrayList<String> errors = new ArrayList<String>();
+
+	private LinkedHashMap<String, Summary> summaries = new LinkedHashMap<String, Summary>();
+
+	/**
+	 * number of messages neither kept nor summarized
+	 */
+	private int nbDropped = 0;
+
+	private int[] counts = new int[3];
+
+	private int maxMessages = DEFAULT_MAX_MESSAGES;
+
+	private int maxSummaries = DEFAULT_MAX_SUMMARIES;
+
+	public XmlErrorHandler() {
+	}
+
+	/**
+	 * @param maxMessages
+	 *            number of messages kept as they are
+	 * @param maxSummaries
+	 *            number of kinds of messages counted
+	 */
+	public XmlErrorHandler(int maxMessages, int maxSummaries) {
+		this.maxMessages = maxMessages;
+		this.maxSummaries = maxSummaries;
+	}
+
+	public void warning(SAXParseException exception) throws SAXException {
+		add(warning, exception);
+	}
+
+	public void error(SAXParseException exception) throws SAXException {
+		add(error, exception);
+	}
+
+	public void fatalError(SAXParseException exception) throws SAXException {
+		add(fatalError, exception);
+	}
+
+	private synchronized void add(int severity, SAXParseException exception) {
+		counts[severity]++;
+		if (errors.size() < maxMessages) {
+			/* same format as before the messages were summarized */
+			errors.add(getSeverityName(severity)
+					+ (severity == error ? " " : "	") + "  Line:    "
+					+ exception.getLineNumber() + "	" + "  URI:     "
+					+ exception.getSystemId() + "	" + "  Message: "
+					+ exception.getMessage());
+			return;
+		}
+
+		String template = getTemplate(exception.getMessage());
+		String key = severity + template;
+		Summary summary = summaries.get(key);
+		if (summary == null) {
+			if (summaries.size() >= maxSummaries) {
+				nbDropped++;
+				return;
+			}
+			summary = new Summary(severity, template, exception
+					.getLineNumber());
+			summaries.put(key, summary);
+		}
+		summary.add(exception.getLineNumber());
+	}
+
+	/**
+	 * @return the message with '#' in place of the numbers and '*' in place
+	 *         of the quoted texts
+	 */
+	public static String getTemplate(String message) {
+		if (message == null)
+			return "";
+		StringBuffer template = new StringBuffer(message.length());
+		char quote = 0;
+		boolean inNumber = false;
+		for (int i = 0; i < message.length(); i++) {
+			char c = message.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					template.append('*').append(c);
+					quote = 0;
+				}
+				continue;
+			}
+			if (c == '\'' || c == '"') {
+				quote = c;
+				template.append(c);
+				inNumber = false;
+			} else if (Character.isDigit(c)) {
+				if (false == inNumber)
+					template.append('#');
+				inNumber = true;
+			} else {
+				template.append(c);
+				inNumber = false;
+			}
+		}
+		if (quote != 0)
+			template.append('*');
+		return template.toString();
+	}
+
+	public static String getSeverityName(int severity) {
+		switch (severity) {
+		case warning:
+			return "Warning";
+		case fatalError:
+			return "Fatal Error";
+		default:
+			return "Error";
+		}
+	}
+
+	/**
+	 * @return the first messages, as they were received
+	 */
+	public synchronized ArrayList<String> getErrors() {
+		return new ArrayList<String>(errors);
+	}
+
+	/**
+	 * @return a copy of the counts of the messages not kept, by kind of
+	 *         message
+	 */
+	public synchronized ArrayList<Summary> getSummaries() {
+		ArrayList<Summary> copies = new ArrayList<Summary>(summaries.size());
+		for (Summary summary : summaries.values())
+			copies.add(new Summary(summary));
+		return copies;
+	}
+
+	/**
+	 * @return the first messages, followed by a line for each kind of message
+	 *         not kept
+	 */
+	public synchronized ArrayList<String> getReport() {
+		ArrayList<String> report = new ArrayList<String>(errors);
+		for (Summary summary : summaries.values())
+			report.add(summary.toString());
+		if (nbDropped > 0)
+			report.add(nbDropped + " other messages");
+		return report;
+	}
+
+	/**
+	 * @param severity
+	 *            error, warning or fatalError
+	 * @return the number of messages received with this severity
+	 */
+	public synchronized int getCount(int severity) {
+		return counts[severity];
+	}
+
+	/**
+	 * @return the number of messages received
+	 */
+	public synchronized int getTotalCount() {
+		return counts[error] + counts[warning] + counts[fatalError];
+	}
+
+	/**
+	 * @return the number of messages that have neither been kept nor
+	 *         summarized
+	 */
+	public synchronized int getNbDropped() {
+		return nbDropped;
+	}
+
+	public synchronized boolean hasErrors() {
+		return getTotalCount() > 0;
+	}
+
+	/**
+	 * forget all messages
+	 */
+	public synchronized void clear() {
+		errors.clear();
+		summaries.clear();
+		nbDropped = 0;
+		counts = new int[3];
+	}
+
+	public int getMaxMessages() {
+		return maxMessages;
+	}
+
+	public void setMaxMessages(int maxMessages) {
+		this.maxMessages = maxMessages;
+	}
+
+	public int getMaxSummaries() {
+		return maxSummaries;
+	}
+
+	public void setMaxSummaries(int maxSummaries) {
+		this.maxSummaries = maxSummaries;
+	}
+}
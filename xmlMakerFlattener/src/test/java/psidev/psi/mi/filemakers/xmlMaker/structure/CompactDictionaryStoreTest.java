@@ -0,0 +1,157 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Test;
+
+/**
+ * Growth of the CompactDictionaryStore and round trip of a compact
+ * dictionary through a snapshot.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class CompactDictionaryStoreTest {
+
+	private static String[] definitions(int i) {
+		String[] definitions = { "definition " + i, "\u00e9t\u00e9 " + i,
+				"\u4e2d" + i };
+		return definitions;
+	}
+
+	private static void checkEntries(DictionaryStore store, int nbEntries) {
+		for (int i = 0; i < nbEntries; i++) {
+			String[] definitions = definitions(i);
+			for (int j = 0; j < definitions.length; j++)
+				assertEquals(definitions[j] + " ", store.getDefinition("word"
+						+ i, j + 1));
+		}
+	}
+
+	/**
+	 * @return the length of the array of bytes
+	 */
+	private static long getEntriesLength(CompactDictionaryStore store) {
+		return store.getMemoryUsage() - 64 - 8L * store.getCapacity();
+	}
+
+	@Test
+	public void growth() {
+		CompactDictionaryStore store = new CompactDictionaryStore();
+		for (int i = 0; i < 20000; i++)
+			store.put("word" + i, definitions(i));
+		assertEquals(20000, store.size());
+		assertTrue(getEntriesLength(store) > 4096);
+		assertTrue(store.getCapacity() * 3 >= store.size() * 4);
+		checkEntries(store, 20000);
+		assertNull(store.getDefinition("word20000", 1));
+	}
+
+	@Test
+	public void growthLimitedByEntriesLength() {
+		CompactDictionaryStore store = new CompactDictionaryStore(10000,
+				CompactDictionaryStore.MAX_CAPACITY);
+		int nbEntries = 0;
+		try {
+			while (true) {
+				store.put("word" + nbEntries, definitions(nbEntries));
+				nbEntries++;
+				if (getEntriesLength(store) > 8192)
+					/* the last growth is not a power of 2 */
+					assertEquals(10000, getEntriesLength(store));
+			}
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().indexOf("too large") >= 0);
+		}
+		assertTrue(nbEntries > 0);
+		assertEquals(10000, getEntriesLength(store));
+		checkEntries(store, nbEntries);
+	}
+
+	@Test
+	public void growthLimitedByCapacity() {
+		CompactDictionaryStore store = new CompactDictionaryStore(
+				CompactDictionaryStore.MAX_ENTRIES_LENGTH, 16);
+		/* 12 entries fill 3/4 of the table */
+		for (int i = 0; i < 12; i++)
+			store.put("word" + i, definitions(i));
+		try {
+			store.put("word12", definitions(12));
+			fail("the table cannot grow");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().indexOf("too large") >= 0);
+		}
+		assertEquals(16, store.getCapacity());
+		checkEntries(store, 12);
+	}
+
+	@Test
+	public void snapshot() throws IOException {
+		File file = File.createTempFile("dictionary", ".txt");
+		File snapshot = File.createTempFile("dictionary", ".snapshot");
+		try {
+			/* the dictionary is read in the default encoding */
+			Writer writer = new FileWriter(file);
+			try {
+				for (int i = 0; i < 5000; i++) {
+					writer.write("Word" + i);
+					for (String definition : definitions(i))
+						writer.write("\t" + definition);
+					writer.write("\n");
+				}
+			} finally {
+				writer.close();
+			}
+
+			Dictionary dictionary = new Dictionary(file.toURI().toURL(),
+					"\t", false, true);
+			assertTrue(dictionary.store instanceof CompactDictionaryStore);
+			dictionary.saveSnapshot(snapshot);
+			assertTrue(Dictionary.isSnapshot(snapshot.toURI().toURL()));
+
+			Dictionary mapped = new Dictionary();
+			mapped.load(snapshot.toURI().toURL(), null);
+			assertTrue(mapped.store instanceof MappedDictionaryStore);
+			assertEquals(dictionary.isCaseSensitive(), mapped
+					.isCaseSensitive());
+			assertEquals("\t", mapped.getSeparator());
+			assertEquals(5000, mapped.store.size());
+			for (int i = 0; i < 5000; i++) {
+				for (int j = 1; j <= 3; j++)
+					assertEquals(dictionary.getDefinition("WORD" + i, j),
+							mapped.getDefinition("WORD" + i, j));
+			}
+			/* the words are kept in lower case */
+			assertEquals("definition 7 ", mapped.store.getDefinition("word7",
+					1));
+			assertNull(mapped.getDefinition("word5000", 1));
+			assertNull(mapped.getDefinition("word0", 4));
+		} finally {
+			file.delete();
+			snapshot.delete();
+		}
+	}
+}
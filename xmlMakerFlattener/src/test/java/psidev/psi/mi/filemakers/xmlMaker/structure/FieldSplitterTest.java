@@ -0,0 +1,112 @@
+/*  Copyright 2004 Arnaud CEOL
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+
+ You may obtain a copy of the License at
+ http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package psidev.psi.mi.filemakers.xmlMaker.structure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compare the fields found by <code>FieldSplitter</code> with the ones of
+ * <code>String.split</code>.
+ *
+ * @author Arnaud Ceol, University of Rome "Tor Vergata", Mint group,
+ *         arnaud.ceol@gmail.com
+ *
+ */
+public class FieldSplitterTest {
+
+	/**
+	 * separators found without the regular expression engine, and the text
+	 * they match
+	 */
+	private final static String[][] LITERALS = { { "\t", "\t" },
+			{ "\\t", "\t" }, { "\\|", "|" }, { ";", ";" }, { "::", "::" },
+			{ "\\.", "." } };
+
+	private final static String REGEXP = "\\s*,\\s*";
+
+	private static void check(String separator, String s) {
+		FieldSplitter splitter = new FieldSplitter(separator);
+		String[] expected = s.split(separator);
+		assertArrayEquals("split of \"" + s + "\" with \"" + separator + "\"",
+				expected, splitter.split(s));
+		assertEquals("count of \"" + s + "\" with \"" + separator + "\"",
+				expected.length, splitter.count(s));
+	}
+
+	/**
+	 * lines built with the text matched by the separator
+	 */
+	private static String[] lines(String sep) {
+		String[] lines = { "", "a", "abc", "a" + sep + "b" + sep + "c",
+				sep + "a" + sep + "b", "a" + sep + "b" + sep,
+				"a" + sep + "b" + sep + sep + sep,
+				"a" + sep + sep + "b" + sep + sep + sep + "c",
+				sep + sep + "a", sep, sep + sep + sep,
+				sep + "a" + sep + sep + "b" + sep + sep, " " + sep + " " };
+		return lines;
+	}
+
+	@Test
+	public void literalSeparators() {
+		for (String[] literal : LITERALS) {
+			assertTrue(new FieldSplitter(literal[0]).isLiteral());
+			for (String line : lines(literal[1]))
+				check(literal[0], line);
+		}
+	}
+
+	@Test
+	public void regexpSeparator() {
+		assertFalse(new FieldSplitter(REGEXP).isLiteral());
+		for (String sep : new String[] { ",", " , ", ",  " }) {
+			for (String line : lines(sep))
+				check(REGEXP, line);
+		}
+	}
+
+	/**
+	 * a separator that is only a part of another one, or the other way round
+	 */
+	@Test
+	public void overlappingSeparators() {
+		check("::", "a:b::c:::d::::e:");
+		check("::", ":::");
+		check(";", "a;;b;");
+		check("\\|", "a||b|c||");
+	}
+
+	@Test
+	public void randomLines() {
+		Random random = new Random(0);
+		String[] separators = { "\t", "\\|", ";", "::", REGEXP };
+		char[] characters = { 'a', 'b', ' ', ',', ':', ';', '|', '\t' };
+		for (String separator : separators) {
+			for (int i = 0; i < 1000; i++) {
+				StringBuffer line = new StringBuffer();
+				int length = random.nextInt(20);
+				for (int j = 0; j < length; j++)
+					line.append(characters[random.nextInt(characters.length)]);
+				check(separator, line.toString());
+			}
+		}
+	}
+}